@@ -0,0 +1,79 @@
+package com.example.hospital.config;
+
+import com.example.hospital.usecase.paciente.AltaAsincronaUseCase;
+import com.example.hospital.usecase.paciente.DarAltaPacienteUseCase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⚙️ Pipeline de altas asíncronas: pool y cola acotados, métricas de profundidad de cola
+ * (hospital.alta.async.cola) y latencia de punta a punta (hospital.alta.async.latencia).
+ * Las operaciones quedan en memoria de esta instancia: con varias réplicas se requiere afinidad de sesión.
+ */
+@Slf4j
+@Configuration
+public class AltaAsincronaConfig {
+
+    private ThreadPoolExecutor pipeline;
+    private AltaAsincronaUseCase altaAsincronaUseCase;
+
+    @Bean
+    public AltaAsincronaUseCase altaAsincronaUseCase(
+            DarAltaPacienteUseCase darAltaPacienteUseCase,
+            MeterRegistry meterRegistry,
+            @Value("${hospital.alta.async.threads:4}") int threads,
+            @Value("${hospital.alta.async.queue-capacity:500}") int queueCapacity,
+            @Value("${hospital.alta.async.retencion-min:30}") long retencionMin
+    ) {
+        // AbortPolicy: con la cola llena el caso de uso responde 503 en vez de bloquear el hilo HTTP
+        pipeline = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("alta-async-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("hospital.alta.async.cola", pipeline, p -> p.getQueue().size())
+                .description("Altas asíncronas esperando en la cola")
+                .register(meterRegistry);
+        Gauge.builder("hospital.alta.async.en_proceso", pipeline, ThreadPoolExecutor::getActiveCount)
+                .description("Altas asíncronas ejecutándose")
+                .register(meterRegistry);
+        Timer latencia = Timer.builder("hospital.alta.async.latencia")
+                .description("Tiempo desde que se encola un alta hasta que termina")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        altaAsincronaUseCase = new AltaAsincronaUseCase(
+                darAltaPacienteUseCase, pipeline, Duration.ofMinutes(retencionMin), latencia::record);
+        return altaAsincronaUseCase;
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.alta.async.purga-ms:60000}")
+    public void purgarOperaciones() {
+        int purgadas = altaAsincronaUseCase.purgarTerminadas();
+        if (purgadas > 0) {
+            log.debug("🧹 {} operaciones de alta purgadas", purgadas);
+        }
+    }
+
+    @PreDestroy
+    public void cerrarPipeline() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+}
@@ -3,7 +3,11 @@ package com.example.hospital.config;
 
 import com.example.hospital.ports.out.CamillaRepositoryPort;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.usecase.camilla.AsignarPacientesLoteUseCase;
 import com.example.hospital.usecase.camilla.CamillaUseCase;
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
+import com.example.hospital.usecase.paciente.BusquedasPacientes;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -13,7 +17,19 @@ import org.springframework.context.annotation.Primary;
 public class CamillaConfig {
     @Primary
     @Bean
-    public CamillaUseCase camillaUseCase(CamillaRepositoryPort camillaRepositoryPort, PacienteRepositoryPort pacienteRepository) {
-        return new CamillaUseCase(camillaRepositoryPort, pacienteRepository);
+    public CamillaUseCase camillaUseCase(CamillaRepositoryPort camillaRepositoryPort,
+                                         PacienteRepositoryPort pacienteRepository,
+                                         DisponibilidadCamillasIndex disponibilidadCamillasIndex,
+                                         BusquedasPacientes busquedasPacientes) {
+        return new CamillaUseCase(camillaRepositoryPort, pacienteRepository, disponibilidadCamillasIndex, busquedasPacientes);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public AsignarPacientesLoteUseCase asignarPacientesLoteUseCase(
+            CamillaRepositoryPort camillaRepositoryPort,
+            PacienteRepositoryPort pacienteRepository,
+            DisponibilidadCamillasIndex disponibilidadCamillasIndex,
+            @Value("${hospital.camillas.asignacion-lote.max-pares:200}") int maxPares) {
+        return new AsignarPacientesLoteUseCase(camillaRepositoryPort, pacienteRepository, disponibilidadCamillasIndex, maxPares);
+    }
+}
@@ -1,29 +1,93 @@
 package com.example.hospital.config;
 
-import com.example.hospital.ports.input.EventPublisherPort;
 import com.example.hospital.ports.out.CamillaRepositoryPort;
+import com.example.hospital.ports.out.OutboxRepositoryPort;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.ports.out.UnitOfWorkPort;
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
+import com.example.hospital.usecase.paciente.BusquedasPacientes;
+import com.example.hospital.usecase.paciente.DarAltaLoteUseCase;
 import com.example.hospital.usecase.paciente.DarAltaPacienteUseCase;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * ⚙️ Configuración del caso de uso DarAltaPacienteUseCase.
+ * ⚙️ Configuración de los casos de uso DarAltaPacienteUseCase y DarAltaLoteUseCase.
  * Define cómo se ensamblan los puertos (interfaces) con sus adaptadores.
  */
 @Configuration
 public class DarAltaPacienteConfig {
 
+    // Pool acotado para las lecturas en paralelo del alta (no se expone como bean Executor
+    // para no reemplazar el applicationTaskExecutor que Spring Boot usa en MVC async)
+    private ThreadPoolExecutor altaIoExecutor;
+
     @Bean
     public DarAltaPacienteUseCase darAltaPacienteUseCase(
             PacienteRepositoryPort pacienteRepositoryPort,
             CamillaRepositoryPort camillaRepositoryPort,
-            EventPublisherPort eventPublisherPort
+            OutboxRepositoryPort outboxRepositoryPort,
+            UnitOfWorkPort unitOfWorkPort,
+            DisponibilidadCamillasIndex disponibilidadCamillasIndex,
+            BusquedasPacientes busquedasPacientes,
+            @Value("${hospital.alta.io-threads:16}") int ioThreads,
+            @Value("${hospital.alta.io-queue-capacity:256}") int ioQueueCapacity,
+            @Value("${hospital.alta.timeout-ms:3000}") long timeoutMs
     ) {
+        // Con la cola llena la tarea corre en el hilo que llama: se frena en vez de rechazar
+        altaIoExecutor = new ThreadPoolExecutor(
+                ioThreads, ioThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(ioQueueCapacity),
+                new CustomizableThreadFactory("alta-io-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        altaIoExecutor.allowCoreThreadTimeOut(true);
+
         return new DarAltaPacienteUseCase(
                 pacienteRepositoryPort,
                 camillaRepositoryPort,
-                eventPublisherPort
+                outboxRepositoryPort,
+                unitOfWorkPort,
+                disponibilidadCamillasIndex,
+                busquedasPacientes,
+                altaIoExecutor,
+                Duration.ofMillis(timeoutMs)
         );
     }
+
+    @Bean
+    public DarAltaLoteUseCase darAltaLoteUseCase(
+            PacienteRepositoryPort pacienteRepositoryPort,
+            CamillaRepositoryPort camillaRepositoryPort,
+            OutboxRepositoryPort outboxRepositoryPort,
+            UnitOfWorkPort unitOfWorkPort,
+            DisponibilidadCamillasIndex disponibilidadCamillasIndex,
+            BusquedasPacientes busquedasPacientes,
+            @Value("${hospital.alta.lote.max-pacientes:200}") int maxPacientes
+    ) {
+        return new DarAltaLoteUseCase(
+                pacienteRepositoryPort,
+                camillaRepositoryPort,
+                outboxRepositoryPort,
+                unitOfWorkPort,
+                disponibilidadCamillasIndex,
+                busquedasPacientes,
+                maxPacientes
+        );
+    }
+
+    @PreDestroy
+    public void cerrarExecutor() {
+        if (altaIoExecutor != null) {
+            altaIoExecutor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.hospital.config;
+
+import com.example.hospital.ports.out.CamillaRepositoryPort;
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * ⚙️ Índice en memoria de camillas disponibles.
+ * Se hidrata cuando la aplicación está lista y se concilia contra Mongo cada
+ * hospital.camillas.indice.conciliacion-ms (los cambios hechos en otros nodos llegan por aquí).
+ */
+@Slf4j
+@Configuration
+public class DisponibilidadCamillasConfig {
+
+    private DisponibilidadCamillasIndex indice;
+    private Counter divergencias;
+
+    @Bean
+    public DisponibilidadCamillasIndex disponibilidadCamillasIndex(CamillaRepositoryPort camillaRepositoryPort,
+                                                                   MeterRegistry meterRegistry) {
+        indice = new DisponibilidadCamillasIndex(camillaRepositoryPort);
+        Gauge.builder("hospital.camillas.disponibles", indice, DisponibilidadCamillasIndex::totalDisponibles)
+                .description("Camillas disponibles según el índice en memoria")
+                .register(meterRegistry);
+        divergencias = Counter.builder("hospital.camillas.indice.divergencias")
+                .description("Diferencias corregidas por la conciliación contra Mongo")
+                .register(meterRegistry);
+        return indice;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hidratarIndice() {
+        conciliar();
+    }
+
+    @Scheduled(
+            initialDelayString = "${hospital.camillas.indice.conciliacion-ms:15000}",
+            fixedDelayString = "${hospital.camillas.indice.conciliacion-ms:15000}"
+    )
+    public void conciliarIndice() {
+        conciliar();
+    }
+
+    private void conciliar() {
+        try {
+            divergencias.increment(indice.conciliar());
+        } catch (Exception e) {
+            // Sin hidratar, las consultas siguen yendo a Mongo; se reintenta en la próxima ejecución
+            log.error("❌ No se pudo conciliar el índice de camillas: {}", e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.hospital.config;
 
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
 import com.example.hospital.usecase.camilla.EventCamillaUseCase;
 import com.example.hospital.ports.out.CamillaRepositoryPort;
 import org.springframework.context.annotation.Bean;
@@ -10,8 +11,9 @@ import org.springframework.context.annotation.Primary;
 public class EventCamillaConfig {
     @Primary
     @Bean
-    public EventCamillaUseCase eventCamillaUseCase(CamillaRepositoryPort camillaRepositoryPort) {
-        return new EventCamillaUseCase(camillaRepositoryPort);
+    public EventCamillaUseCase eventCamillaUseCase(CamillaRepositoryPort camillaRepositoryPort,
+                                                   DisponibilidadCamillasIndex disponibilidadCamillasIndex) {
+        return new EventCamillaUseCase(camillaRepositoryPort, disponibilidadCamillasIndex);
     }
 
 }
@@ -0,0 +1,94 @@
+package com.example.hospital.config;
+
+import com.example.hospital.utils.CacheTtl;
+import graphql.costo.CostoConsultaInstrumentation;
+import graphql.costo.CostoGraphQlHttpHandler;
+import graphql.costo.PresupuestoClientes;
+import graphql.documento.DocumentosPersistidos;
+import graphql.metricas.TiemposCamposInstrumentation;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlHandler;
+
+import java.time.Duration;
+
+/**
+ * ⚙️ Configuración del motor GraphQL (graphql-java) detrás de /graphql.
+ *
+ * Documentos parseados y consultas persistidas: hospital.graphql.documentos.cache-max documentos
+ * como máximo, cada uno durante hospital.graphql.documentos.cache-ttl-min.
+ * Métricas: hospital.graphql.documentos.cache.{entradas,aciertos,fallos,ratio}.
+ *
+ * Límites de costo (hospital.graphql.costo.*): profundidad y costo estimado máximos por operación,
+ * y presupuesto de costo por cliente en una ventana deslizante. Spring Boot registra la Instrumentation,
+ * y el handler HTTP propio reemplaza al de Spring Boot para responder los rechazos con 400 / 429.
+ *
+ * Tiempos por campo y resolver, invocaciones por solicitud y aviso de N+1 a partir de
+ * hospital.graphql.campos.umbral-n-mas-uno invocaciones del mismo resolver.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public DocumentosPersistidos documentosPersistidos(
+            MeterRegistry meterRegistry,
+            @Value("${hospital.graphql.documentos.cache-max:1000}") int cacheMax,
+            @Value("${hospital.graphql.documentos.cache-ttl-min:60}") long cacheTtlMin
+    ) {
+        CacheTtl<String, PreparsedDocumentEntry> documentos = new CacheTtl<>(cacheMax, Duration.ofMinutes(cacheTtlMin));
+
+        Gauge.builder("hospital.graphql.documentos.cache.entradas", documentos, CacheTtl::tamanio)
+                .register(meterRegistry);
+        FunctionCounter.builder("hospital.graphql.documentos.cache.aciertos", documentos, CacheTtl::aciertos)
+                .register(meterRegistry);
+        FunctionCounter.builder("hospital.graphql.documentos.cache.fallos", documentos, CacheTtl::fallos)
+                .register(meterRegistry);
+        Gauge.builder("hospital.graphql.documentos.cache.ratio", documentos, GraphQlConfig::ratioAciertos)
+                .description("Fracción de solicitudes GraphQL que no tuvieron que parsear ni validar el documento")
+                .register(meterRegistry);
+
+        return new DocumentosPersistidos(documentos);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentosPersistidosCustomizer(DocumentosPersistidos documentosPersistidos) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentosPersistidos));
+    }
+
+    @Bean
+    public CostoConsultaInstrumentation costoConsultaInstrumentation(
+            MeterRegistry meterRegistry,
+            @Value("${hospital.graphql.costo.max-costo:5000}") long maxCosto,
+            @Value("${hospital.graphql.costo.max-profundidad:10}") int maxProfundidad,
+            @Value("${hospital.graphql.costo.tamanio-lista:100}") int tamanioLista,
+            @Value("${hospital.graphql.costo.presupuesto:30000}") long presupuesto,
+            @Value("${hospital.graphql.costo.presupuesto-ventana-seg:60}") long ventanaSeg
+    ) {
+        return new CostoConsultaInstrumentation(maxCosto, maxProfundidad, tamanioLista,
+                new PresupuestoClientes(presupuesto, Duration.ofSeconds(ventanaSeg)), meterRegistry);
+    }
+
+    @Bean
+    public CostoGraphQlHttpHandler costoGraphQlHttpHandler(WebGraphQlHandler webGraphQlHandler) {
+        return new CostoGraphQlHttpHandler(webGraphQlHandler);
+    }
+
+    @Bean
+    public TiemposCamposInstrumentation tiemposCamposInstrumentation(
+            MeterRegistry meterRegistry,
+            @Value("${hospital.graphql.campos.umbral-n-mas-uno:20}") int umbralNMasUno
+    ) {
+        return new TiemposCamposInstrumentation(umbralNMasUno, meterRegistry);
+    }
+
+    private static double ratioAciertos(CacheTtl<?, ?> cache) {
+        long total = cache.aciertos() + cache.fallos();
+        return total == 0 ? 0 : (double) cache.aciertos() / total;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.hospital.config;
+
+import com.example.hospital.usecase.idempotencia.IdempotenciaStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * ⚙️ Almacén de claves de idempotencia: resultados guardados durante hospital.idempotencia.ttl-min,
+ * hasta hospital.idempotencia.max-entradas claves y con reintentos que esperan como mucho hospital.idempotencia.espera-ms,
+ * con métricas de entradas vivas (hospital.idempotencia.entradas) y reintentos atendidos (hospital.idempotencia.repeticiones).
+ * Las claves quedan en memoria de esta instancia: con varias réplicas se requiere afinidad de sesión.
+ */
+@Slf4j
+@Configuration
+public class IdempotenciaConfig {
+
+    private IdempotenciaStore idempotenciaStore;
+
+    @Bean
+    public IdempotenciaStore idempotenciaStore(
+            MeterRegistry meterRegistry,
+            @Value("${hospital.idempotencia.ttl-min:60}") long ttlMin,
+            @Value("${hospital.idempotencia.max-entradas:100000}") int maxEntradas,
+            @Value("${hospital.idempotencia.espera-ms:10000}") long esperaMs
+    ) {
+        Counter repeticiones = Counter.builder("hospital.idempotencia.repeticiones")
+                .description("Solicitudes repetidas respondidas con el resultado guardado")
+                .register(meterRegistry);
+
+        idempotenciaStore = new IdempotenciaStore(
+                Duration.ofMinutes(ttlMin), maxEntradas, Duration.ofMillis(esperaMs), repeticiones::increment);
+
+        Gauge.builder("hospital.idempotencia.entradas", idempotenciaStore, IdempotenciaStore::totalEntradas)
+                .description("Resultados guardados por clave de idempotencia")
+                .register(meterRegistry);
+        return idempotenciaStore;
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.idempotencia.purga-ms:60000}")
+    public void purgarExpiradas() {
+        int purgadas = idempotenciaStore.purgarExpiradas();
+        if (purgadas > 0) {
+            log.debug("🧹 {} claves de idempotencia expiradas", purgadas);
+        }
+    }
+}
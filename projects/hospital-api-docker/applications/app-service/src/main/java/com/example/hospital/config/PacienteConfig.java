@@ -1,18 +1,50 @@
 package com.example.hospital.config;
 
 
+import com.example.hospital.model.Paciente;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.usecase.paciente.BusquedasPacientes;
 import com.example.hospital.usecase.paciente.PacienteUseCase;
+import com.example.hospital.utils.CacheTtl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+
 @Configuration
 public class PacienteConfig {
     @Primary
     @Bean
-    public PacienteUseCase pacienteUseCase(PacienteRepositoryPort pacienteRepositoryPort) {
-        return new PacienteUseCase(pacienteRepositoryPort);
+    public PacienteUseCase pacienteUseCase(PacienteRepositoryPort pacienteRepositoryPort,
+                                           BusquedasPacientes busquedasPacientes) {
+        return new PacienteUseCase(pacienteRepositoryPort, busquedasPacientes);
+    }
+
+    /**
+     * Caché de búsquedas por documento / historia clínica; la comparten todos los casos de uso que escriben pacientes.
+     */
+    @Bean
+    public BusquedasPacientes busquedasPacientes(
+            PacienteRepositoryPort pacienteRepositoryPort,
+            MeterRegistry meterRegistry,
+            @Value("${hospital.pacientes.busquedas.cache-max:10000}") int cacheMax,
+            @Value("${hospital.pacientes.busquedas.cache-ttl-seg:60}") long cacheTtlSeg
+    ) {
+        CacheTtl<String, Paciente> busquedas = new CacheTtl<>(cacheMax, Duration.ofSeconds(cacheTtlSeg), Paciente::getId);
+
+        Gauge.builder("hospital.pacientes.busquedas.cache.entradas", busquedas, CacheTtl::tamanio)
+                .register(meterRegistry);
+        FunctionCounter.builder("hospital.pacientes.busquedas.cache.aciertos", busquedas, CacheTtl::aciertos)
+                .register(meterRegistry);
+        FunctionCounter.builder("hospital.pacientes.busquedas.cache.fallos", busquedas, CacheTtl::fallos)
+                .register(meterRegistry);
+
+        return new BusquedasPacientes(pacienteRepositoryPort, busquedas);
     }
 
 }
@@ -0,0 +1,31 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.utils.DateUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📅 Conversión de fechas a texto ISO usada en las asignaciones y altas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private LocalDateTime fecha;
+
+    @Setup
+    public void setup() {
+        fecha = LocalDateTime.of(2024, 10, 4, 16, 45, 0);
+    }
+
+    @Benchmark
+    public String toIsoString() {
+        return DateUtils.toIsoString(fecha);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaLiberadaEvent;
+import com.example.hospital.model.Paciente;
+
+import java.util.Date;
+
+/**
+ * 🧪 Datos de ejemplo compartidos por los benchmarks.
+ */
+final class Datos {
+
+    private Datos() {
+    }
+
+    static Paciente paciente() {
+        return new Paciente("6710f3a2c1d4e5f6a7b8c9d0", "Laura", "Sofía", "Gómez", "Rincón",
+                "1032456789", new Date(631152000000L), "O+", "F", "Penicilina",
+                "Hospitalizado", null, "HC-2024-00871", "Sura");
+    }
+
+    static Camilla camillaOcupada(Paciente paciente) {
+        Camilla camilla = new Camilla("6710f3a2c1d4e5f6a7b8c9d1", "Ocupada", "301-B",
+                "2024-10-01T08:30:00", null, paciente);
+        camilla.setPacienteId(paciente.getId());
+        return camilla;
+    }
+
+    static CamillaLiberadaEvent evento() {
+        return new CamillaLiberadaEvent("6710f3a2c1d4e5f6a7b8c9d1", "6710f3a2c1d4e5f6a7b8c9d0",
+                "2024-10-04T16:45:00", "alta_paciente");
+    }
+}
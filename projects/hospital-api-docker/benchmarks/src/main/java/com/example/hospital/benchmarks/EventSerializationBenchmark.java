@@ -0,0 +1,52 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.model.CamillaLiberadaEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📨 Serialización JSON de CamillaLiberadaEvent, directa y con el converter que usa RabbitTemplate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter converter;
+    private CamillaLiberadaEvent evento;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        converter = new Jackson2JsonMessageConverter();
+        evento = Datos.evento();
+        json = objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Benchmark
+    public CamillaLiberadaEvent deserializar() throws IOException {
+        return objectMapper.readValue(json, CamillaLiberadaEvent.class);
+    }
+
+    @Benchmark
+    public Message mensajeRabbit() {
+        return converter.toMessage(evento, new MessageProperties());
+    }
+}
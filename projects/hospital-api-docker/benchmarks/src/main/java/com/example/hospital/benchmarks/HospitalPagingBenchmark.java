@@ -0,0 +1,38 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.model.Hospital;
+import com.example.hospital.usecase.hospital.HospitalBasicService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🏥 Paginación por offset de HospitalBasicService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HospitalPagingBenchmark {
+
+    @Param({"1", "2"})
+    private int page;
+
+    @Param({"2", "5"})
+    private int size;
+
+    private HospitalBasicService service;
+
+    @Setup
+    public void setup() {
+        service = new HospitalBasicService();
+    }
+
+    @Benchmark
+    public List<Hospital> getHospitalsByPage() {
+        return service.getHospitalsByPage(page, size);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.adapters.document.CamillaDocument;
+import com.example.hospital.adapters.document.PacienteDocument;
+import com.example.hospital.adapters.mapper.CamillaMongoMapper;
+import com.example.hospital.adapters.mapper.CamillaMongoMapperImpl;
+import com.example.hospital.adapters.mapper.PacienteMongoMapper;
+import com.example.hospital.adapters.mapper.PacienteMongoMapperImpl;
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Paciente;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧩 Ida y vuelta dominio -> documento -> dominio con los mappers MapStruct de Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MongoMapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private PacienteMongoMapper pacienteMapper;
+    private CamillaMongoMapper camillaMapper;
+
+    private Paciente paciente;
+    private Camilla camilla;
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(PacienteMongoMapperImpl.class, CamillaMongoMapperImpl.class);
+        pacienteMapper = context.getBean(PacienteMongoMapper.class);
+        camillaMapper = context.getBean(CamillaMongoMapper.class);
+
+        paciente = Datos.paciente();
+        camilla = Datos.camillaOcupada(paciente);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Paciente pacienteIdaYVuelta() {
+        PacienteDocument doc = pacienteMapper.toDocument(paciente);
+        return pacienteMapper.toDomain(doc);
+    }
+
+    @Benchmark
+    public Camilla camillaIdaYVuelta() {
+        CamillaDocument doc = camillaMapper.toDocument(camilla);
+        return camillaMapper.toDomain(doc);
+    }
+}
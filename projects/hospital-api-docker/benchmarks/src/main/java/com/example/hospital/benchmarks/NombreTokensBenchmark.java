@@ -0,0 +1,64 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.adapters.busqueda.NombreTokens;
+import com.example.hospital.adapters.document.PacienteDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔤 Parte en memoria de la búsqueda por nombre: tokens al guardar un paciente
+ * y orden por relevancia del máximo de candidatos que trae Mongo (500).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NombreTokensBenchmark {
+
+    private static final String[] NOMBRES = {"María", "José", "Ángela", "Sofía", "Andrés", "Mariana", "Joaquín", "Lucía"};
+    private static final String[] APELLIDOS = {"López", "Núñez", "Pérez", "Gómez", "Lopera", "Martínez", "Ramírez", "Peña"};
+
+    private PacienteDocument paciente;
+    private List<PacienteDocument> candidatos;
+    private List<String> terminos;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        paciente = documento("María", "José", "López", "Núñez");
+        candidatos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            PacienteDocument candidato = documento(
+                    NOMBRES[random.nextInt(NOMBRES.length)], NOMBRES[random.nextInt(NOMBRES.length)],
+                    APELLIDOS[random.nextInt(APELLIDOS.length)], APELLIDOS[random.nextInt(APELLIDOS.length)]);
+            candidato.setNombreTokens(NombreTokens.de(candidato));
+            candidatos.add(candidato);
+        }
+        terminos = NombreTokens.terminos("maria lop");
+    }
+
+    private static PacienteDocument documento(String nombre, String segundoNombre, String apellido, String segundoApellido) {
+        PacienteDocument doc = new PacienteDocument();
+        doc.setPrimerNombre(nombre);
+        doc.setSegundoNombre(segundoNombre);
+        doc.setPrimerApellido(apellido);
+        doc.setSegundoApellido(segundoApellido);
+        return doc;
+    }
+
+    @Benchmark
+    public List<String> tokensAlGuardar() {
+        return NombreTokens.de(paciente);
+    }
+
+    @Benchmark
+    public List<PacienteDocument> ordenarCandidatos() {
+        return NombreTokens.ordenarPorRelevancia(candidatos, terminos);
+    }
+}
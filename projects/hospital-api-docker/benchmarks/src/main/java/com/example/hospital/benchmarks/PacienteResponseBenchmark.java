@@ -0,0 +1,49 @@
+package com.example.hospital.benchmarks;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Paciente;
+import com.example.hospital.response.PacienteResponse;
+import com.example.hospital.response.PacienteResponseMapper;
+import com.example.hospital.utils.PacienteUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🎯 Construcción de la respuesta de alta y cálculo del tiempo de estancia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacienteResponseBenchmark {
+
+    private Paciente paciente;
+    private Camilla camilla;
+
+    @Setup
+    public void setup() {
+        paciente = Datos.paciente();
+        paciente.setEstado("Alta");
+        paciente.setFechaAlta("2024-10-04T16:45:00");
+        camilla = Datos.camillaOcupada(paciente);
+        camilla.setFechaFin("2024-10-04T16:45:00");
+    }
+
+    @Benchmark
+    public PacienteResponse toResponse() {
+        return PacienteResponseMapper.toResponse(paciente, camilla);
+    }
+
+    @Benchmark
+    public String tiempoEstanciaIso() {
+        return PacienteUtils.calcularTiempoEstancia("2024-10-01T08:30:00", "2024-10-04T16:45:00");
+    }
+
+    @Benchmark
+    public String tiempoEstanciaSoloFecha() {
+        return PacienteUtils.calcularTiempoEstancia("2024-10-01", "2024-10-04");
+    }
+}
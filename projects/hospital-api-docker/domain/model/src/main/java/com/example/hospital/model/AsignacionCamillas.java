@@ -0,0 +1,12 @@
+package com.example.hospital.model;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 🛏️ Resultado de una asignación masiva de camillas.
+ * camillas: estado final de las camillas pedidas que existen.
+ * asignadas: ids de las camillas que ocupó esta operación (no otra asignación concurrente).
+ */
+public record AsignacionCamillas(List<Camilla> camillas, Set<String> asignadas) {
+}
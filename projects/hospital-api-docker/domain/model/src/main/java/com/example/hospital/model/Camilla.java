@@ -14,7 +14,11 @@ public class Camilla implements Serializable {
     private String habitacion;
     private String fechaInicio;
     private String fechaFin;
+    // Paciente completo: solo se llena cuando el caso de uso lo tiene a mano
     private Paciente paciente;
+    // Referencia y resumen del paciente; vienen siempre con la camilla, sin consultar pacientes
+    private String pacienteId;
+    private PacienteResumen pacienteResumen;
 
     public Camilla() {
     }
@@ -27,7 +31,7 @@ public class Camilla implements Serializable {
         this.habitacion = habitacion;
         this.fechaInicio = fechaInicio;
         this.fechaFin = fechaFin;
-        this.paciente = paciente;
+        setPaciente(paciente);
     }
 
     // Getters y Setters
@@ -77,6 +81,25 @@ public class Camilla implements Serializable {
 
     public void setPaciente(Paciente paciente) {
         this.paciente = paciente;
+        this.pacienteId = paciente != null ? paciente.getId() : null;
+        this.pacienteResumen = paciente != null ? PacienteResumen.desde(paciente) : null;
+    }
+
+    public String getPacienteId() {
+        return pacienteId;
+    }
+
+    public void setPacienteId(String pacienteId) {
+        this.pacienteId = pacienteId;
+    }
+
+    public PacienteResumen getPacienteResumen() {
+        return pacienteResumen;
+    }
+
+    public void setPacienteResumen(PacienteResumen pacienteResumen) {
+        this.pacienteResumen = pacienteResumen;
+        this.pacienteId = pacienteResumen != null ? pacienteResumen.id() : null;
     }
 
     // equals y hashCode
@@ -102,7 +125,7 @@ public class Camilla implements Serializable {
                 ", habitacion='" + habitacion + '\'' +
                 ", fechaInicio=" + fechaInicio +
                 ", fechaFin=" + fechaFin +
-                ", paciente=" + (paciente != null ? paciente.getId() : "null") +
+                ", paciente=" + (paciente != null ? paciente.getId() : pacienteId) +
                 '}';
     }
 }
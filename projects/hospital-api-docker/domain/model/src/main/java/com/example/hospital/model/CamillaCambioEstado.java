@@ -0,0 +1,18 @@
+package com.example.hospital.model;
+
+import java.time.Instant;
+
+/**
+ * 🔔 Cambio de estado de una camilla (Disponible ↔ Ocupada, creada o eliminada),
+ * tal como lo registra el índice de disponibilidad. Es lo que recibe la suscripción camillaCambioEstado.
+ * estadoAnterior es null si la camilla es nueva; estado es null si la camilla se eliminó.
+ */
+public record CamillaCambioEstado(
+        String idCamilla,
+        String habitacion,
+        String estadoAnterior,
+        String estado,
+        String pacienteId,
+        Instant ocurridoEn
+) {
+}
@@ -0,0 +1,29 @@
+package com.example.hospital.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * 📦 Evento pendiente de publicación (patrón transactional outbox).
+ * Se guarda en la misma unidad de trabajo que los cambios de negocio y
+ * un relay en segundo plano lo publica luego en RabbitMQ.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent implements Serializable {
+
+    private String id;
+    private String routingKey;
+    private CamillaLiberadaEvent payload;
+    private Instant creadoEn;
+    private int intentos;
+
+    public static OutboxEvent nuevo(String routingKey, CamillaLiberadaEvent payload) {
+        return new OutboxEvent(null, routingKey, payload, Instant.now(), 0);
+    }
+}
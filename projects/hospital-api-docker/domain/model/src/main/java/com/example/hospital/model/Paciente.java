@@ -23,6 +23,7 @@ public class Paciente {
     private String fechaAlta;         // Se mantiene String como en el Document
     private String numeroHistoriaClinica;
     private String eps;
+    private Long version;             // Control de concurrencia optimista; sin valor = 0
 
     public Paciente() { }
 
@@ -85,6 +86,8 @@ public class Paciente {
     public void setNumeroHistoriaClinica(String numeroHistoriaClinica) { this.numeroHistoriaClinica = numeroHistoriaClinica; }
     public String getEps() { return eps; }
     public void setEps(String eps) { this.eps = eps; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 
     // equals / hashCode por id
     @Override
@@ -118,6 +121,7 @@ public class Paciente {
                 ", fechaAlta='" + fechaAlta + '\'' +
                 ", numeroHistoriaClinica='" + numeroHistoriaClinica + '\'' +
                 ", eps='" + eps + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,12 @@
+package com.example.hospital.model;
+
+/**
+ * 🔎 Filtros del listado de pacientes; los que vienen en null no se aplican.
+ * altaDesde / altaHasta son fechas (yyyy-MM-dd) e incluyen el día completo.
+ */
+public record PacienteFiltro(String estado, String eps, String tipoSangre, String altaDesde, String altaHasta) {
+
+    public static PacienteFiltro sinFiltros() {
+        return new PacienteFiltro(null, null, null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.hospital.model;
+
+/**
+ * 🪪 Datos mínimos del paciente que viajan dentro de la camilla (tablero de camas).
+ * Es una copia: se mantiene al día cuando cambian esos datos del paciente.
+ */
+public record PacienteResumen(String id, String primerNombre, String primerApellido,
+                              String documentoIdentidad, String estado) {
+
+    public static PacienteResumen desde(Paciente paciente) {
+        return new PacienteResumen(paciente.getId(), paciente.getPrimerNombre(), paciente.getPrimerApellido(),
+                paciente.getDocumentoIdentidad(), paciente.getEstado());
+    }
+}
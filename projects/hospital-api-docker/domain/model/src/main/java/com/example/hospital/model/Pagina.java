@@ -0,0 +1,21 @@
+package com.example.hospital.model;
+
+import java.util.List;
+
+/**
+ * 📄 Página de resultados con paginación por cursor (keyset).
+ * Cada elemento trae su cursor opaco; para pedir la siguiente página se envía el último.
+ */
+public record Pagina<T>(List<T> items, List<String> cursores, boolean haySiguiente) {
+
+    public static <T> Pagina<T> vacia() {
+        return new Pagina<>(List.of(), List.of(), false);
+    }
+
+    /**
+     * Cursor a enviar como "after" para continuar, o null si no hay más resultados.
+     */
+    public String siguienteCursor() {
+        return haySiguiente && !cursores.isEmpty() ? cursores.get(cursores.size() - 1) : null;
+    }
+}
@@ -3,6 +3,14 @@ package com.example.hospital.ports.input;
 
 import com.example.hospital.model.CamillaLiberadaEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface EventPublisherPort {
     void publish(String routingKey, CamillaLiberadaEvent event);
-}
\ No newline at end of file
+
+    /**
+     * Publica el evento sin bloquear al llamador.
+     * El futuro se completa cuando el broker confirma (ack) el mensaje, o falla si lo rechaza o no confirma a tiempo.
+     */
+    CompletableFuture<Void> publishAsync(String routingKey, CamillaLiberadaEvent event);
+}
@@ -3,23 +3,84 @@ package com.example.hospital.ports.out;
 // 📂 dominio/puertos/out
 
 
+import com.example.hospital.model.AsignacionCamillas;
 import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaLiberadaEvent;
+import com.example.hospital.model.Pagina;
+import com.example.hospital.model.Paciente;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface CamillaRepositoryPort {
 
+    /**
+     * Los listados no cargan el paciente de cada camilla: solo llenan pacienteId.
+     */
     List<Camilla> findAll();
 
+    /**
+     * Como findAll, leyendo solo "campos" del dominio (y el id); el resto llega en null.
+     * pacienteId se lee del resumen embebido sin traer el resto del resumen.
+     * Con campos en null se lee el documento completo.
+     */
+    List<Camilla> findAll(Collection<String> campos);
+
     List<Camilla> findByEstado(String estado);
 
+    /**
+     * Página de camillas ordenada por id, a partir del cursor "after" (null = primera página).
+     * El estado es opcional; igual que los listados, no carga el paciente.
+     */
+    Pagina<Camilla> findPage(String after, int limit, String estado);
+
+    /**
+     * Recorre toda la colección con un cursor de Mongo, sin cargarla en memoria.
+     * El Stream mantiene el cursor abierto: quien lo use debe cerrarlo (try-with-resources).
+     */
+    Stream<Camilla> streamAll();
+
     Optional<Camilla> findById(String id);
 
+    // Como los listados, solo llena pacienteId (no carga el paciente)
     Optional<Camilla> findByPacienteId(String pacienteId);
 
+    // Las camillas que ocupan estos pacientes, en una sola consulta
+    List<Camilla> findByPacienteIds(Collection<String> pacienteIds);
+
     Camilla save(Camilla camilla);
 
+    /**
+     * Asigna el paciente a la camilla de forma atómica, solo si su estado actual es "Disponible".
+     * Retorna vacío si la camilla no existe o ya no está disponible (otra asignación ganó la carrera).
+     */
+    Optional<Camilla> asignarPacienteSiDisponible(String idCamilla, Paciente paciente, String fechaInicio);
+
+    /**
+     * Libera la camilla (Disponible, sin paciente, con fechaFin) de forma atómica, solo si sigue "Ocupada"
+     * por ese paciente. Retorna vacío si no existe o si entretanto se liberó o se asignó a otro paciente.
+     */
+    Optional<Camilla> liberarSiOcupadaPor(String idCamilla, String idPaciente, String fechaFin);
+
+    /**
+     * Igual que asignarPacienteSiDisponible para varias camillas (id de camilla -> paciente), en una sola
+     * escritura masiva: cada camilla solo se ocupa si sigue "Disponible".
+     * Retorna el estado final de las camillas pedidas que existen y cuáles ocupó esta llamada: cada escritura
+     * se marca con un id de operación propio, así dos lotes concurrentes no pueden creer que ganaron la misma camilla.
+     */
+    AsignacionCamillas asignarPacientesSiDisponibles(Map<String, Paciente> pacientePorCamilla, String fechaInicio);
+
+    /**
+     * Marca como disponibles (sin paciente) las camillas de los eventos, en una sola escritura masiva.
+     * Cada camilla solo se libera si sigue "Ocupada" por el paciente del evento.
+     * Retorna los ids de las camillas que esta llamada liberó.
+     */
+    Set<String> releaseAll(Collection<CamillaLiberadaEvent> eventos);
+
     void deleteById(String id);
 
     boolean existsById(String id);
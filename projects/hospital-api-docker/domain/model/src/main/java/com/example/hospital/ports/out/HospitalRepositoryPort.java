@@ -1,9 +1,11 @@
 package com.example.hospital.ports.out;
 
 import com.example.hospital.model.Hospital;
+import com.example.hospital.model.Pagina;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface HospitalRepositoryPort {
 
@@ -11,6 +13,14 @@ public interface HospitalRepositoryPort {
 
     List<Hospital> findByCity(String city);
 
+    /**
+     * Página de hospitales ordenada por id, a partir del cursor "after"; la ciudad es opcional.
+     */
+    Pagina<Hospital> findPage(String after, int limit, String city);
+
+    // Stream respaldado por un cursor de Mongo; debe cerrarse al terminar
+    Stream<Hospital> streamAll();
+
     Optional<Hospital> findById(String id);
 
     Hospital save(Hospital hospital);
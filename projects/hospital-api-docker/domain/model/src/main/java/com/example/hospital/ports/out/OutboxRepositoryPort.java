@@ -0,0 +1,41 @@
+package com.example.hospital.ports.out;
+
+import com.example.hospital.model.OutboxEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface OutboxRepositoryPort {
+
+    OutboxEvent save(OutboxEvent event);
+
+    // Inserta todos los eventos en una sola escritura
+    void saveAll(Collection<OutboxEvent> events);
+
+    /**
+     * Reclama hasta "limite" eventos pendientes cuyo próximo intento ya llegó, del más antiguo al más reciente.
+     * El reclamo es atómico por evento: dos relays (en distintos nodos) nunca reciben el mismo evento
+     * mientras dure "lease"; si el relay que lo reclamó cae, vuelve a estar disponible al vencer.
+     */
+    List<OutboxEvent> reclamarPendientes(int limite, Duration lease);
+
+    void marcarPublicados(Collection<String> ids);
+
+    /**
+     * Suma un intento a cada evento y lo deja disponible de nuevo en la fecha indicada.
+     */
+    void reprogramar(Map<String, Instant> proximoIntento);
+
+    /**
+     * Suma el último intento y deja los eventos como FALLIDO: el relay no los vuelve a tomar.
+     */
+    void marcarFallidos(Collection<String> ids);
+
+    long contarPendientes();
+
+    Optional<Instant> fechaPendienteMasAntiguo();
+}
@@ -1,19 +1,73 @@
 package com.example.hospital.ports.out;
 
 
+import com.example.hospital.model.Pagina;
 import com.example.hospital.model.Paciente;
+import com.example.hospital.model.PacienteFiltro;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface PacienteRepositoryPort {
 
     List<Paciente> findAll();
 
+    /**
+     * Como findAll, leyendo de Mongo solo "campos" (y el id); el resto llega en null.
+     * Con campos en null se lee el documento completo.
+     */
+    List<Paciente> findAll(Collection<String> campos);
+
     Optional<Paciente> findById(String id);
 
+    Optional<Paciente> findByDocumentoIdentidad(String documentoIdentidad);
+
+    Optional<Paciente> findByNumeroHistoriaClinica(String numeroHistoriaClinica);
+
+    /**
+     * Página de pacientes ordenada por id, a partir del cursor "after"; el estado es opcional.
+     */
+    Pagina<Paciente> findPage(String after, int limit, String estado);
+
+    /**
+     * Página de pacientes que cumplen el filtro, resuelta en Mongo con índice.
+     * Si "campos" no es null solo se leen esos campos (y el id); el resto llega en null.
+     */
+    Pagina<Paciente> findPage(PacienteFiltro filtro, String after, int limit, Collection<String> campos);
+
+    // Igual que en camillas: el Stream mantiene un cursor abierto y debe cerrarse
+    Stream<Paciente> streamAll();
+
+    List<Paciente> findAllById(Collection<String> ids);
+
+    /**
+     * Pacientes cuyo nombre o apellidos empiezan por cada término del texto (sin distinguir tildes
+     * ni mayúsculas), del más al menos relevante.
+     */
+    List<Paciente> buscarPorNombre(String texto, int limit);
+
+    /**
+     * Guarda el paciente; si el documento o la historia clínica ya pertenecen a otro paciente lanza CONFLICT (409).
+     * Un paciente existente solo se reemplaza si su versión sigue siendo la leída; si no, también CONFLICT (409).
+     */
     Paciente save(Paciente paciente);
 
+    /**
+     * Guarda solo los campos no nulos de "cambios" en una sola operación y retorna el paciente actualizado.
+     * Con versionEsperada, solo se aplica si la versión guardada coincide.
+     * Retorna vacío si el paciente no existe o si la versión no coincide.
+     */
+    Optional<Paciente> patch(String id, Paciente cambios, Long versionEsperada);
+
+    /**
+     * Marca como "Alta" (con la misma fecha) los pacientes de la lista que siguen hospitalizados,
+     * en una sola escritura. Retorna los ids de los que cambiaron.
+     */
+    Set<String> darAltaAll(Collection<String> ids, String fechaAlta);
+
     void deleteById(String id);
 
     boolean existsById(String id);
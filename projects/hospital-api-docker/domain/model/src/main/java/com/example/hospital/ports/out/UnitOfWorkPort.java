@@ -0,0 +1,11 @@
+package com.example.hospital.ports.out;
+
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta un bloque de trabajo de forma atómica: o se confirman todas sus escrituras o ninguna.
+ */
+public interface UnitOfWorkPort {
+
+    <T> T executeInTransaction(Supplier<T> work);
+}
@@ -0,0 +1,138 @@
+package com.example.hospital.usecase.camilla;
+
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.exception.MongoConnectionException;
+import com.example.hospital.model.AsignacionCamillas;
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Paciente;
+import com.example.hospital.ports.out.CamillaRepositoryPort;
+import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.usecase.camilla.result.AsignacionPaciente;
+import com.example.hospital.usecase.camilla.result.ResultadoAsignacion;
+import com.example.hospital.utils.DateUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caso de uso: Asignar muchos pacientes a camillas en una sola solicitud (ej: alerta de víctimas en masa).
+ * En vez de una lectura y una escritura por asignación:
+ * 1️⃣ Lee todos los pacientes con una consulta $in.
+ * 2️⃣ Ocupa todas las camillas con un bulkWrite de updates condicionales (solo si siguen "Disponible").
+ * 3️⃣ Relee las camillas con una consulta $in; las que ganó este lote las marca el id de operación de la escritura.
+ * Cada par recibe su propio resultado: uno que falla no impide los demás.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AsignarPacientesLoteUseCase {
+
+    private final CamillaRepositoryPort camillaRepository;
+    private final PacienteRepositoryPort pacienteRepository;
+    private final DisponibilidadCamillasIndex disponibilidad;
+    private final int maxAsignaciones;
+
+    /**
+     * Asigna cada paciente a su camilla y retorna un resultado por par, en el orden recibido.
+     */
+    public List<ResultadoAsignacion> asignarPacientes(List<AsignacionPaciente> asignaciones) {
+        validarLote(asignaciones);
+        log.info("🩺 Iniciando asignación en lote de {} pacientes", asignaciones.size());
+
+        Map<String, Paciente> pacientes;
+        try {
+            Set<String> idsPacientes = asignaciones.stream().map(AsignacionPaciente::idPaciente).collect(Collectors.toSet());
+            pacientes = pacienteRepository.findAllById(idsPacientes).stream()
+                    .collect(Collectors.toMap(Paciente::getId, Function.identity()));
+        } catch (Exception e) {
+            log.error("❌ Error al consultar los pacientes del lote: {}", e.getMessage(), e);
+            throw new MongoConnectionException("Error al conectar con la base de datos para la asignación en lote", e);
+        }
+
+        // Un resultado por posición (el mismo par puede venir repetido); null = se intenta escribir
+        ResultadoAsignacion[] resultados = new ResultadoAsignacion[asignaciones.size()];
+        Map<String, Paciente> pacientePorCamilla = new LinkedHashMap<>();
+        Set<String> pacientesUsados = new HashSet<>();
+        for (int i = 0; i < asignaciones.size(); i++) {
+            AsignacionPaciente asignacion = asignaciones.get(i);
+            Paciente paciente = pacientes.get(asignacion.idPaciente());
+            if (paciente == null) {
+                resultados[i] = ResultadoAsignacion.fallido(asignacion, "404",
+                        "Paciente no encontrado con ID: " + asignacion.idPaciente());
+            } else if (pacientePorCamilla.containsKey(asignacion.idCamilla())) {
+                resultados[i] = ResultadoAsignacion.fallido(asignacion, "409",
+                        "La camilla " + asignacion.idCamilla() + " ya se asigna a otro paciente en este lote");
+            } else if (!pacientesUsados.add(asignacion.idPaciente())) {
+                resultados[i] = ResultadoAsignacion.fallido(asignacion, "409",
+                        "El paciente " + asignacion.idPaciente() + " ya se asigna a otra camilla en este lote");
+            } else {
+                pacientePorCamilla.put(asignacion.idCamilla(), paciente);
+            }
+        }
+
+        String fechaInicio = DateUtils.toIsoString(LocalDateTime.now());
+        AsignacionCamillas escritura;
+        Map<String, Camilla> camillas;
+        try {
+            escritura = camillaRepository.asignarPacientesSiDisponibles(pacientePorCamilla, fechaInicio);
+            camillas = escritura.camillas().stream()
+                    .collect(Collectors.toMap(Camilla::getId, Function.identity()));
+        } catch (Exception e) {
+            log.error("❌ Error al ocupar las camillas del lote: {}", e.getMessage(), e);
+            throw new MongoConnectionException("Error al guardar la asignación en lote", e);
+        }
+
+        List<ResultadoAsignacion> ordenados = new ArrayList<>(resultados.length);
+        for (int i = 0; i < resultados.length; i++) {
+            AsignacionPaciente asignacion = asignaciones.get(i);
+            ordenados.add(resultados[i] != null ? resultados[i] : resultadoEscritura(asignacion,
+                    pacientePorCamilla.get(asignacion.idCamilla()), camillas.get(asignacion.idCamilla()),
+                    escritura.asignadas().contains(asignacion.idCamilla())));
+        }
+
+        long exitosas = ordenados.stream().filter(ResultadoAsignacion::exito).count();
+        log.info("🏁 Asignación en lote terminada: {} exitosas, {} fallidas", exitosas, ordenados.size() - exitosas);
+        return ordenados;
+    }
+
+    private void validarLote(List<AsignacionPaciente> asignaciones) {
+        if (asignaciones == null || asignaciones.isEmpty()) {
+            throw new BusinessException("BAD_REQUEST", "Debe indicar al menos una asignación de camilla", "400");
+        }
+        if (asignaciones.size() > maxAsignaciones) {
+            throw new BusinessException(
+                    "BAD_REQUEST",
+                    "La asignación en lote admite como máximo " + maxAsignaciones + " pares (se enviaron " + asignaciones.size() + ")",
+                    "400"
+            );
+        }
+    }
+
+    /**
+     * La camilla es de este par si la escritura de esta operación la ocupó (lo dice el repositorio por id de operación,
+     * no por fechas); si no, otra asignación la ocupó antes (o ya estaba ocupada).
+     */
+    private ResultadoAsignacion resultadoEscritura(AsignacionPaciente asignacion, Paciente paciente, Camilla camilla, boolean asignada) {
+        if (camilla == null) {
+            return ResultadoAsignacion.fallido(asignacion, "404", "Camilla no encontrada con ID: " + asignacion.idCamilla());
+        }
+        if (!asignada || !Objects.equals(camilla.getPacienteId(), paciente.getId())) {
+            return ResultadoAsignacion.fallido(asignacion, "409",
+                    "La camilla no está disponible para asignación (estado: " + camilla.getEstado() + ")");
+        }
+
+        disponibilidad.registrar(camilla);
+        // Igual que en la asignación individual, se devuelve con el paciente completo que ya se leyó
+        camilla.setPaciente(paciente);
+        return ResultadoAsignacion.exitoso(asignacion, camilla);
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.hospital.usecase.camilla;
 
+import com.example.hospital.exception.BusinessException;
 import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Pagina;
 import com.example.hospital.model.Paciente;
 import com.example.hospital.ports.out.CamillaRepositoryPort;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.usecase.paciente.BusquedasPacientes;
 import com.example.hospital.utils.DateUtils;
+import com.example.hospital.utils.PaginacionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 /**
@@ -21,8 +29,14 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CamillaUseCase {
 
+    // Campos del dominio que se pueden pedir en los listados con proyección
+    private static final Set<String> CAMPOS_PROYECTABLES = Set.of(
+            "estado", "habitacion", "fechaInicio", "fechaFin", "pacienteId", "pacienteResumen");
+
     private final CamillaRepositoryPort camillaRepository;
     private final PacienteRepositoryPort pacienteRepository;
+    private final DisponibilidadCamillasIndex disponibilidad;
+    private final BusquedasPacientes busquedas;
 
     // =============================
     // 🔍 CONSULTAS BÁSICAS
@@ -38,16 +52,54 @@ public class CamillaUseCase {
         return todas;
     }
 
+    /**
+     * Retorna todas las camillas leyendo solo "campos" (y el id); null = todos los campos.
+     */
+    public List<Camilla> obtenerTodasLasCamillas(Collection<String> campos) {
+        if (campos == null) {
+            return obtenerTodasLasCamillas();
+        }
+        Set<String> proyeccion = new LinkedHashSet<>(campos);
+        proyeccion.remove("id");
+        List<String> desconocidos = proyeccion.stream().filter(c -> !CAMPOS_PROYECTABLES.contains(c)).toList();
+        if (!desconocidos.isEmpty()) {
+            throw new BusinessException("BAD_REQUEST", "Campos de camilla desconocidos: " + desconocidos, "400");
+        }
+        log.info("📋 Obteniendo todas las camillas (campos={})...", proyeccion);
+        return camillaRepository.findAll(proyeccion);
+    }
+
     /**
      * Retorna todas las camillas disponibles (estado = 'Disponible').
+     * Se leen del índice en memoria; solo se consulta Mongo mientras el índice no esté hidratado.
      */
     public List<Camilla> obtenerCamillasDisponibles() {
-        log.info("🛏️ Buscando camillas con estado 'Disponible'...");
+        if (disponibilidad.estaHidratado()) {
+            return disponibilidad.disponibles();
+        }
+        log.info("🛏️ Índice sin hidratar, buscando camillas con estado 'Disponible' en Mongo...");
         List<Camilla> disponibles = camillaRepository.findByEstado("Disponible");
         log.info("📤 Total camillas disponibles: {}", disponibles.size());
         return disponibles;
     }
 
+    /**
+     * Retorna una página de camillas (paginación por cursor), opcionalmente filtradas por estado.
+     */
+    public Pagina<Camilla> obtenerCamillasPaginadas(String cursor, Integer limit, String estado) {
+        int limite = PaginacionUtils.normalizarLimite(limit);
+        log.info("📄 Página de camillas: cursor={}, limit={}, estado={}", cursor, limite, estado);
+        return camillaRepository.findPage(cursor, limite, estado);
+    }
+
+    /**
+     * Exporta todas las camillas como un Stream sobre un cursor (debe cerrarse al terminar).
+     */
+    public Stream<Camilla> exportarCamillas() {
+        log.info("📦 Exportando camillas (cursor)...");
+        return camillaRepository.streamAll();
+    }
+
     /**
      * Buscar una camilla específica por ID.
      */
@@ -62,45 +114,55 @@ public class CamillaUseCase {
 
     /**
      * Asigna un paciente a una camilla disponible.
+     * La verificación del estado y la escritura se hacen en una sola operación atómica en el repositorio:
+     * si la camilla ya no está disponible se responde con un conflicto (409) en vez de sobrescribirla.
      */
     public Camilla asignarPaciente(String idCamilla, String idPaciente) {
         log.info("🩺 Asignando paciente {} a camilla {}", idPaciente, idCamilla);
 
-        try {
-            Optional<Camilla> camillaOpt = camillaRepository.findById(idCamilla);
-            Optional<Paciente> pacienteOpt = pacienteRepository.findById(idPaciente);
-
-            if (camillaOpt.isEmpty()) {
-                log.warn("⚠️ Camilla no encontrada con ID: {}", idCamilla);
-                throw new RuntimeException("Camilla no encontrada con ID: " + idCamilla);
-            }
-
-            if (pacienteOpt.isEmpty()) {
-                log.warn("⚠️ Paciente no encontrado con ID: {}", idPaciente);
-                throw new RuntimeException("Paciente no encontrado con ID: " + idPaciente);
-            }
-
-            Camilla camilla = camillaOpt.get();
-            Paciente paciente = pacienteOpt.get();
-
-            if (!"Disponible".equalsIgnoreCase(camilla.getEstado())) {
-                log.warn("🚫 La camilla {} no está disponible, estado actual: {}", idCamilla, camilla.getEstado());
-                throw new RuntimeException("La camilla no está disponible para asignación");
-            }
-
-            camilla.setPaciente(paciente);
-            camilla.setEstado("Ocupada");
-            camilla.setFechaInicio(DateUtils.toIsoString(LocalDateTime.now()));
-
-            Camilla actualizada = camillaRepository.save(camilla);
-            log.info("✅ Paciente {} asignado correctamente a camilla {}", paciente.getPrimerNombre(), idCamilla);
-
-            return actualizada;
+        Paciente paciente = pacienteRepository.findById(idPaciente)
+                .orElseThrow(() -> {
+                    log.warn("⚠️ Paciente no encontrado con ID: {}", idPaciente);
+                    return new BusinessException(
+                            "NOT_FOUND",
+                            "Paciente no encontrado con ID: " + idPaciente,
+                            "404"
+                    );
+                });
+
+        Camilla actualizada = camillaRepository.asignarPacienteSiDisponible(
+                        idCamilla, paciente, DateUtils.toIsoString(LocalDateTime.now()))
+                .orElseThrow(() -> conflictoAsignacion(idCamilla));
+        // Se registra la camilla completa (con el resumen del paciente) para que el cambio avise quién la ocupa
+        disponibilidad.registrar(actualizada);
+        // La camilla guardada solo tiene el resumen; se devuelve con el paciente completo que ya se leyó
+        actualizada.setPaciente(paciente);
+
+        log.info("✅ Paciente {} asignado correctamente a camilla {}", paciente.getPrimerNombre(), idCamilla);
+        return actualizada;
+    }
 
-        } catch (Exception e) {
-            log.error("❌ Error al asignar paciente a camilla: {}", e.getMessage(), e);
-            throw new RuntimeException("Error al asignar paciente a camilla", e);
-        }
+    /**
+     * Solo se consulta cuando la asignación atómica falla, para distinguir "no existe" de "no disponible".
+     */
+    private BusinessException conflictoAsignacion(String idCamilla) {
+        return camillaRepository.findById(idCamilla)
+                .map(camilla -> {
+                    log.warn("🚫 La camilla {} no está disponible, estado actual: {}", idCamilla, camilla.getEstado());
+                    return new BusinessException(
+                            "CONFLICT",
+                            "La camilla no está disponible para asignación (estado: " + camilla.getEstado() + ")",
+                            "409"
+                    );
+                })
+                .orElseGet(() -> {
+                    log.warn("⚠️ Camilla no encontrada con ID: {}", idCamilla);
+                    return new BusinessException(
+                            "NOT_FOUND",
+                            "Camilla no encontrada con ID: " + idCamilla,
+                            "404"
+                    );
+                });
     }
 
     // =============================
@@ -116,12 +178,14 @@ public class CamillaUseCase {
         try {
             return camillaRepository.findById(idCamilla)
                     .map(camilla -> {
-                        if (camilla.getPaciente() != null) {
-                            Paciente paciente = camilla.getPaciente();
-                            paciente.setEstado("Alta");
-                            paciente.setFechaAlta(fechaFin);
-                            pacienteRepository.save(paciente);
-                            log.info("📋 Paciente {} dado de alta el {}", paciente.getPrimerNombre(), fechaFin);
+                        if (camilla.getPacienteId() != null) {
+                            // La camilla solo trae el resumen del paciente: se actualizan estado y fecha sin reescribirlo
+                            Paciente alta = new Paciente();
+                            alta.setEstado("Alta");
+                            alta.setFechaAlta(fechaFin);
+                            pacienteRepository.patch(camilla.getPacienteId(), alta, null)
+                                    .ifPresent(p -> log.info("📋 Paciente {} dado de alta el {}", p.getPrimerNombre(), fechaFin));
+                            busquedas.invalidar(camilla.getPacienteId());
                         }
 
                         camilla.setEstado("Disponible");
@@ -129,6 +193,7 @@ public class CamillaUseCase {
                         camilla.setFechaFin(fechaFin);
 
                         Camilla liberada = camillaRepository.save(camilla);
+                        disponibilidad.registrar(liberada);
                         log.info("✅ Camilla {} liberada correctamente", idCamilla);
                         return liberada;
                     })
@@ -152,7 +217,9 @@ public class CamillaUseCase {
     public Camilla crearCamilla(Camilla camilla) {
         log.info("🛠️ Creando nueva camilla: {}", camilla.getHabitacion());
         camilla.setEstado("Disponible");
-        return camillaRepository.save(camilla);
+        Camilla creada = camillaRepository.save(camilla);
+        disponibilidad.registrar(creada);
+        return creada;
     }
 
     /**
@@ -165,6 +232,7 @@ public class CamillaUseCase {
             throw new RuntimeException("Camilla no encontrada con id: " + id);
         }
         camillaRepository.deleteById(id);
+        disponibilidad.eliminar(id);
         log.info("✅ Camilla eliminada exitosamente");
     }
 }
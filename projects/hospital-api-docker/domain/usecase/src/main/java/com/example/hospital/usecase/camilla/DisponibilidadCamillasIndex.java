@@ -0,0 +1,322 @@
+package com.example.hospital.usecase.camilla;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaCambioEstado;
+import com.example.hospital.ports.out.CamillaRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 🛏️ Índice en memoria (por nodo) de la disponibilidad de camillas.
+ * Guarda una copia de cada camilla y, por habitación, el conjunto de camillas libres:
+ * consultar las disponibles es una lectura en memoria, sin ir a Mongo.
+ *
+ * Se hidrata al arrancar y se mantiene al día con las transiciones de los casos de uso
+ * (asignación, liberación, alta, eventos). Los cambios hechos por otros nodos se recogen
+ * en la conciliación periódica contra Mongo, que sigue siendo la fuente de verdad.
+ *
+ * Cada cambio de estado se avisa a los oyentes registrados (ej: suscripciones GraphQL), también los que
+ * llegan por la conciliación. Los oyentes se llaman en el hilo de la transición: no deben bloquear.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DisponibilidadCamillasIndex {
+
+    static final String DISPONIBLE = "Disponible";
+    static final String OCUPADA = "Ocupada";
+
+    private final CamillaRepositoryPort camillaRepository;
+
+    // Cada transición toma un número de secuencia; la conciliación no pisa cambios posteriores a su lectura
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Map<String, Entrada> camillas = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> libresPorHabitacion = new ConcurrentHashMap<>();
+    // Transiciones que no encontraron la camilla en el índice (aún no hidratada o eliminada) -> su secuencia.
+    // La conciliación no confía en su lectura de Mongo para esas camillas si la transición es posterior al corte.
+    private final Map<String, Long> cambiosSinEntrada = new ConcurrentHashMap<>();
+    private volatile boolean hidratado;
+    private final List<Consumer<CamillaCambioEstado>> oyentes = new CopyOnWriteArrayList<>();
+
+    private record Entrada(Camilla camilla, long version) {
+    }
+
+    // =============================
+    // 🔍 LECTURAS
+    // =============================
+
+    public boolean estaHidratado() {
+        return hidratado;
+    }
+
+    /**
+     * Camillas disponibles de todas las habitaciones (copias, sin paciente).
+     */
+    public List<Camilla> disponibles() {
+        List<Camilla> resultado = new ArrayList<>();
+        libresPorHabitacion.values().forEach(ids -> agregarCopias(ids, resultado));
+        return resultado;
+    }
+
+    /**
+     * Camillas disponibles de una habitación.
+     */
+    public List<Camilla> disponiblesEnHabitacion(String habitacion) {
+        Set<String> ids = libresPorHabitacion.get(habitacion);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<Camilla> resultado = new ArrayList<>(ids.size());
+        agregarCopias(ids, resultado);
+        return resultado;
+    }
+
+    public int totalDisponibles() {
+        return libresPorHabitacion.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Registra un oyente de los cambios de estado; los cambios de la hidratación inicial no se avisan.
+     */
+    public void agregarOyente(Consumer<CamillaCambioEstado> oyente) {
+        oyentes.add(oyente);
+    }
+
+    // =============================
+    // 🔄 TRANSICIONES
+    // =============================
+
+    /**
+     * Registra el estado actual de una camilla (creación o cambio completo).
+     */
+    public void registrar(Camilla camilla) {
+        if (camilla == null || camilla.getId() == null) {
+            return;
+        }
+        long version = secuencia.incrementAndGet();
+        camillas.compute(camilla.getId(), (id, actual) -> reemplazar(actual, copia(camilla), version));
+    }
+
+    public void marcarDisponible(String idCamilla, String fechaFin) {
+        cambiarEstado(idCamilla, DISPONIBLE, null, fechaFin);
+    }
+
+    public void marcarOcupada(String idCamilla, String fechaInicio) {
+        cambiarEstado(idCamilla, OCUPADA, fechaInicio, null);
+    }
+
+    public void eliminar(String idCamilla) {
+        if (idCamilla == null) {
+            return;
+        }
+        cambiosSinEntrada.put(idCamilla, secuencia.incrementAndGet());
+        camillas.computeIfPresent(idCamilla, (id, actual) -> {
+            quitarLibre(actual.camilla());
+            avisar(actual.camilla(), null);
+            return null;
+        });
+    }
+
+    private void cambiarEstado(String idCamilla, String estado, String fechaInicio, String fechaFin) {
+        if (idCamilla == null) {
+            return;
+        }
+        long version = secuencia.incrementAndGet();
+        Entrada actualizada = camillas.computeIfPresent(idCamilla, (id, actual) -> {
+            Camilla nueva = copia(actual.camilla());
+            nueva.setEstado(estado);
+            if (DISPONIBLE.equals(estado)) {
+                nueva.setPacienteResumen(null);
+            }
+            if (fechaInicio != null) {
+                nueva.setFechaInicio(fechaInicio);
+            }
+            if (fechaFin != null) {
+                nueva.setFechaFin(fechaFin);
+            }
+            return reemplazar(actual, nueva, version);
+        });
+        if (actualizada == null) {
+            // No está en el índice (creada en otro nodo o hidratación en curso): la trae la conciliación
+            cambiosSinEntrada.put(idCamilla, version);
+        }
+    }
+
+    // =============================
+    // 🧮 HIDRATACIÓN Y CONCILIACIÓN
+    // =============================
+
+    /**
+     * Compara el índice con Mongo y corrige las diferencias. La primera ejecución hidrata el índice.
+     * Las camillas que cambiaron después de empezar la lectura se dejan como están. Si el cambio llegó
+     * cuando la camilla aún no estaba en el índice (o la eliminó), su lectura puede ser anterior al cambio:
+     * se vuelve a leer de Mongo.
+     *
+     * @return número de camillas que estaban desalineadas con Mongo
+     */
+    public synchronized int conciliar() {
+        long corte = secuencia.get();
+        List<Camilla> enMongo = camillaRepository.findAll();
+
+        int divergencias = 0;
+        Set<String> vistas = new HashSet<>();
+        List<String> releer = new ArrayList<>();
+        for (Camilla camilla : enMongo) {
+            vistas.add(camilla.getId());
+            Entrada actual = camillas.get(camilla.getId());
+            if (actual != null && actual.version() > corte) {
+                continue;
+            }
+            if (actual == null || difiere(actual.camilla(), camilla)) {
+                if (aplicar(camilla, corte)) {
+                    divergencias++;
+                } else if (!camillas.containsKey(camilla.getId())) {
+                    releer.add(camilla.getId());
+                }
+            }
+        }
+
+        for (String id : releer) {
+            long corteRelectura = secuencia.get();
+            Optional<Camilla> actualizada = camillaRepository.findById(id);
+            // Si vuelve a cambiar durante esta lectura, queda para la próxima conciliación
+            if (actualizada.isPresent() && aplicar(actualizada.get(), corteRelectura)) {
+                divergencias++;
+            }
+        }
+
+        for (String id : new ArrayList<>(camillas.keySet())) {
+            if (!vistas.contains(id)) {
+                Entrada eliminada = camillas.computeIfPresent(id, (k, actual) -> {
+                    if (actual.version() > corte) {
+                        return actual;
+                    }
+                    quitarLibre(actual.camilla());
+                    avisar(actual.camilla(), null);
+                    return null;
+                });
+                if (eliminada == null) {
+                    divergencias++;
+                }
+            }
+        }
+
+        cambiosSinEntrada.values().removeIf(version -> version <= corte);
+
+        if (!hidratado) {
+            hidratado = true;
+            log.info("🛏️ Índice de disponibilidad hidratado: {} camillas, {} disponibles", camillas.size(), totalDisponibles());
+            return 0;
+        }
+        if (divergencias > 0) {
+            log.warn("⚠️ Conciliación del índice de camillas: {} diferencias corregidas contra Mongo", divergencias);
+        } else {
+            log.debug("✅ Índice de camillas alineado con Mongo ({} disponibles)", totalDisponibles());
+        }
+        return divergencias;
+    }
+
+    // =============================
+    // 🔧 AUXILIARES
+    // =============================
+
+    /**
+     * Aplica la lectura de Mongo si no hubo transiciones de la camilla después de "corte".
+     */
+    private boolean aplicar(Camilla camilla, long corte) {
+        long version = secuencia.incrementAndGet();
+        boolean[] aplicada = {false};
+        camillas.compute(camilla.getId(), (id, previa) -> {
+            long ultimoCambio = previa != null ? previa.version() : cambiosSinEntrada.getOrDefault(id, 0L);
+            if (ultimoCambio > corte) {
+                return previa;
+            }
+            aplicada[0] = true;
+            return reemplazar(previa, copia(camilla), version);
+        });
+        return aplicada[0];
+    }
+
+    private Entrada reemplazar(Entrada actual, Camilla nueva, long version) {
+        if (actual != null) {
+            quitarLibre(actual.camilla());
+        }
+        if (actual == null || !Objects.equals(actual.camilla().getEstado(), nueva.getEstado())) {
+            avisar(actual != null ? actual.camilla() : null, nueva);
+        }
+        if (DISPONIBLE.equals(nueva.getEstado())) {
+            libresPorHabitacion
+                    .computeIfAbsent(claveHabitacion(nueva), h -> ConcurrentHashMap.newKeySet())
+                    .add(nueva.getId());
+        }
+        return new Entrada(nueva, version);
+    }
+
+    // anterior null = camilla nueva; nueva null = camilla eliminada
+    private void avisar(Camilla anterior, Camilla nueva) {
+        if (!hidratado || oyentes.isEmpty()) {
+            return;
+        }
+        Camilla camilla = nueva != null ? nueva : anterior;
+        CamillaCambioEstado cambio = new CamillaCambioEstado(
+                camilla.getId(),
+                camilla.getHabitacion(),
+                anterior != null ? anterior.getEstado() : null,
+                nueva != null ? nueva.getEstado() : null,
+                nueva != null ? nueva.getPacienteId() : null,
+                Instant.now());
+        for (Consumer<CamillaCambioEstado> oyente : oyentes) {
+            try {
+                oyente.accept(cambio);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Un oyente de cambios de camilla falló: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void quitarLibre(Camilla camilla) {
+        Set<String> ids = libresPorHabitacion.get(claveHabitacion(camilla));
+        if (ids != null) {
+            ids.remove(camilla.getId());
+        }
+    }
+
+    private void agregarCopias(Set<String> ids, List<Camilla> destino) {
+        for (String id : ids) {
+            Optional.ofNullable(camillas.get(id))
+                    .filter(entrada -> DISPONIBLE.equals(entrada.camilla().getEstado()))
+                    .ifPresent(entrada -> destino.add(copia(entrada.camilla())));
+        }
+    }
+
+    private static String claveHabitacion(Camilla camilla) {
+        return camilla.getHabitacion() != null ? camilla.getHabitacion() : "";
+    }
+
+    private static boolean difiere(Camilla indice, Camilla mongo) {
+        return !Objects.equals(indice.getEstado(), mongo.getEstado())
+                || !Objects.equals(indice.getHabitacion(), mongo.getHabitacion());
+    }
+
+    // El índice guarda copias con el resumen y sin el paciente completo: las lecturas nunca comparten instancias
+    private static Camilla copia(Camilla origen) {
+        Camilla copia = new Camilla(origen.getId(), origen.getEstado(), origen.getHabitacion(),
+                origen.getFechaInicio(), origen.getFechaFin(), null);
+        copia.setPacienteResumen(origen.getPacienteResumen());
+        copia.setPacienteId(origen.getPacienteId());
+        return copia;
+    }
+}
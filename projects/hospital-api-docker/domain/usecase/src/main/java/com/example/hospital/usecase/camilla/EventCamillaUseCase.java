@@ -1,11 +1,14 @@
 package com.example.hospital.usecase.camilla;
 
-import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaLiberadaEvent;
 import com.example.hospital.ports.out.CamillaRepositoryPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 🧩 Caso de uso para procesar eventos relacionados con Camillas.
@@ -16,21 +19,32 @@ import java.util.Optional;
 public class EventCamillaUseCase {
 
     private final CamillaRepositoryPort camillaRepositoryPort;
+    private final DisponibilidadCamillasIndex disponibilidad;
 
     /**
-     * Procesa un evento de liberación de camilla, marcándola como disponible.
+     * Procesa un lote de eventos de liberación con una sola escritura masiva.
+     * Si una camilla aparece varias veces en el lote, prevalece el último evento recibido.
+     * La entrega es "al menos una vez": un evento repetido o tardío no libera una camilla que ya está libre
+     * o que se asignó a otro paciente, y el índice solo cambia para las camillas que sí se liberaron.
      */
-    public void procesarCamillaLiberada(String camillaId, String fechaLiberacion, String origen) {
-        log.info("📩 Procesando evento de liberación: camilla={}, origen={}, fecha={}",
-                camillaId, origen, fechaLiberacion);
+    public void procesarCamillasLiberadas(List<CamillaLiberadaEvent> eventos) {
+        Map<String, CamillaLiberadaEvent> porCamilla = new LinkedHashMap<>();
+        for (CamillaLiberadaEvent evento : eventos) {
+            if (evento.getCamillaId() == null || evento.getPacienteId() == null) {
+                log.warn("⚠️ Evento de liberación sin camillaId o pacienteId, se descarta: {}", evento);
+                continue;
+            }
+            porCamilla.put(evento.getCamillaId(), evento);
+        }
 
-        Optional<Camilla> camillaOpt = camillaRepositoryPort.findById(camillaId);
-        camillaOpt.ifPresentOrElse(camilla -> {
-            camilla.setEstado("Disponible");
-            camilla.setPaciente(null);
-            camilla.setFechaFin(fechaLiberacion);
-            camillaRepositoryPort.save(camilla);
-            log.info("✅ Camilla {} liberada correctamente desde origen: {}", camillaId, origen);
-        }, () -> log.warn("⚠️ Camilla no encontrada con ID: {}", camillaId));
+        Set<String> liberadas = camillaRepositoryPort.releaseAll(porCamilla.values());
+        porCamilla.values().stream()
+                .filter(e -> liberadas.contains(e.getCamillaId()))
+                .forEach(e -> disponibilidad.marcarDisponible(e.getCamillaId(), e.getFechaLiberacion()));
+        log.info("✅ Lote de {} eventos procesado: {} camillas liberadas", eventos.size(), liberadas.size());
+        if (liberadas.size() < porCamilla.size()) {
+            log.warn("⚠️ {} eventos del lote no liberaron camilla (no existe, ya estaba libre o tiene otro paciente)",
+                    porCamilla.size() - liberadas.size());
+        }
     }
 }
@@ -0,0 +1,7 @@
+package com.example.hospital.usecase.camilla.result;
+
+/**
+ * 🛏️ Par camilla - paciente de una asignación en lote (input AsignacionInput de GraphQL).
+ */
+public record AsignacionPaciente(String idCamilla, String idPaciente) {
+}
@@ -0,0 +1,25 @@
+package com.example.hospital.usecase.camilla.result;
+
+import com.example.hospital.model.Camilla;
+
+/**
+ * 🩺 Resultado de un par de la asignación en lote: con exito = true trae la camilla ocupada
+ * (con el paciente completo); si no, el código y detalle del error.
+ */
+public record ResultadoAsignacion(
+        String idCamilla,
+        String idPaciente,
+        boolean exito,
+        Camilla camilla,
+        String errorCodigo,
+        String errorDetalle
+) {
+
+    public static ResultadoAsignacion exitoso(AsignacionPaciente asignacion, Camilla camilla) {
+        return new ResultadoAsignacion(asignacion.idCamilla(), asignacion.idPaciente(), true, camilla, null, null);
+    }
+
+    public static ResultadoAsignacion fallido(AsignacionPaciente asignacion, String codigo, String detalle) {
+        return new ResultadoAsignacion(asignacion.idCamilla(), asignacion.idPaciente(), false, null, codigo, detalle);
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.hospital.usecase.hospital;
 
 import com.example.hospital.model.Hospital;
+import com.example.hospital.model.Pagina;
 import com.example.hospital.ports.out.HospitalRepositoryPort;
+import com.example.hospital.utils.PaginacionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 🧠 Caso de uso principal para la gestión de hospitales.
@@ -34,6 +37,23 @@ public class HospitalUseCase {
         return hospitalRepository.findByCity(city);
     }
 
+    /**
+     * Retorna una página de hospitales (paginación por cursor), opcionalmente filtrados por ciudad.
+     */
+    public Pagina<Hospital> obtenerHospitalesPaginados(String cursor, Integer limit, String city) {
+        int limite = PaginacionUtils.normalizarLimite(limit);
+        log.info("📄 Página de hospitales: cursor={}, limit={}, city={}", cursor, limite, city);
+        return hospitalRepository.findPage(cursor, limite, city);
+    }
+
+    /**
+     * Exporta todos los hospitales como un Stream sobre un cursor (debe cerrarse al terminar).
+     */
+    public Stream<Hospital> exportarHospitales() {
+        log.info("📦 Exportando hospitales (cursor)...");
+        return hospitalRepository.streamAll();
+    }
+
     /**
      * Busca un hospital por su ID.
      */
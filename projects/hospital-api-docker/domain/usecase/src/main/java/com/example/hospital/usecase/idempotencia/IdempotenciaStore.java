@@ -0,0 +1,175 @@
+package com.example.hospital.usecase.idempotencia;
+
+import com.example.hospital.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 🔑 Almacén de resultados por clave de idempotencia (header Idempotency-Key / argumento idempotencyKey).
+ *
+ * La primera solicitud con una clave ejecuta la operación y guarda su resultado durante "ttl".
+ * Los reintentos con la misma clave reciben ese mismo resultado sin volver a Mongo ni a RabbitMQ.
+ * Si el reintento llega mientras la primera sigue en curso, espera su resultado en vez de ejecutarla dos veces.
+ *
+ * Solo se guardan los resultados exitosos: si la operación falla la clave queda libre para reintentar.
+ * Reutilizar una clave con otros datos (ej: otro paciente) se rechaza con 422.
+ *
+ * Límites:
+ *  - maxEntradas: con el almacén lleno (y sin expiradas que purgar) las claves nuevas se rechazan con 503;
+ *    descartar resultados vigentes rompería la garantía de idempotencia.
+ *  - esperaMaxima: un reintento no espera más que esto a la solicitud original; si sigue en curso recibe 409.
+ *
+ * ⚠️ El almacén vive en memoria de cada instancia: con varias réplicas el balanceador debe usar afinidad de sesión
+ * (sticky) por cliente para que los reintentos de una clave lleguen al nodo que la registró. En otro nodo la clave
+ * es desconocida y la operación se ejecuta de nuevo; al reiniciar la instancia se pierden todas las claves.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotenciaStore {
+
+    // Con el almacén lleno, a lo sumo una purga por segundo
+    private static final long NANOS_ENTRE_PURGAS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Duration ttl;
+    private final int maxEntradas;
+    private final Duration esperaMaxima;
+    private final Runnable registroRepeticion;
+
+    private volatile long ultimaPurga = System.nanoTime();
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private static final class Entrada {
+        private final String huella;
+        private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+        // Se fija al completar; mientras la operación está en curso la entrada no expira
+        private volatile long expiraEn;
+
+        private Entrada(String huella) {
+            this.huella = huella;
+        }
+
+        private boolean expirada(long ahora) {
+            return resultado.isDone() && ahora - expiraEn > 0;
+        }
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave.
+     *
+     * @param operacion nombre de la operación; separa las claves de operaciones distintas
+     * @param clave     clave enviada por el cliente; si viene vacía la operación se ejecuta sin idempotencia
+     * @param huella    datos de la solicitud que deben coincidir en los reintentos
+     * @param accion    operación a ejecutar
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String operacion, String clave, String huella, Supplier<T> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+
+        String id = operacion + ":" + clave;
+        if (entradas.size() >= maxEntradas && !entradas.containsKey(id)) {
+            liberarEspacio(clave);
+        }
+        Entrada nueva = new Entrada(huella);
+        Entrada existente;
+        while ((existente = entradas.putIfAbsent(id, nueva)) != null) {
+            if (!existente.expirada(System.nanoTime())) {
+                return (T) repetir(existente, huella, clave);
+            }
+            entradas.remove(id, existente);
+        }
+
+        try {
+            T resultado = accion.get();
+            nueva.expiraEn = System.nanoTime() + ttl.toNanos();
+            nueva.resultado.complete(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            // El fallo no se guarda: el siguiente reintento vuelve a ejecutar la operación.
+            // Throwable y no RuntimeException: con un Error la entrada quedaría en curso para siempre.
+            entradas.remove(id, nueva);
+            nueva.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void liberarEspacio(String clave) {
+        long ahora = System.nanoTime();
+        if (ahora - ultimaPurga > NANOS_ENTRE_PURGAS) {
+            ultimaPurga = ahora;
+            purgarExpiradas();
+        }
+        if (entradas.size() >= maxEntradas) {
+            log.warn("⚠️ Almacén de idempotencia lleno ({} claves), se rechaza la clave {}", entradas.size(), clave);
+            throw new BusinessException(
+                    "SERVICE_UNAVAILABLE",
+                    "Demasiadas operaciones con clave de idempotencia en curso; reintente más tarde",
+                    "503"
+            );
+        }
+    }
+
+    private Object repetir(Entrada existente, String huella, String clave) {
+        if (!Objects.equals(existente.huella, huella)) {
+            throw new BusinessException(
+                    "UNPROCESSABLE_ENTITY",
+                    "La clave de idempotencia " + clave + " ya se usó con una solicitud diferente",
+                    "422"
+            );
+        }
+
+        log.info("🔁 Solicitud repetida con clave de idempotencia {}: se devuelve el resultado original", clave);
+        registroRepeticion.run();
+        try {
+            return existente.resultado.get(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // La solicitud original falló mientras esta esperaba: se propaga el mismo error
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw enCurso(clave);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw enCurso(clave);
+        }
+    }
+
+    private BusinessException enCurso(String clave) {
+        return new BusinessException(
+                "CONFLICT",
+                "La solicitud original con la clave de idempotencia " + clave + " sigue en curso; reintente más tarde",
+                "409"
+        );
+    }
+
+    /**
+     * Elimina los resultados guardados hace más de "ttl".
+     */
+    public int purgarExpiradas() {
+        long ahora = System.nanoTime();
+        int antes = entradas.size();
+        entradas.values().removeIf(entrada -> entrada.expirada(ahora));
+        return antes - entradas.size();
+    }
+
+    public int totalEntradas() {
+        return entradas.size();
+    }
+}
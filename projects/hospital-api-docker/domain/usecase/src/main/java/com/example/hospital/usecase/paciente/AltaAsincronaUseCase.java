@@ -0,0 +1,117 @@
+package com.example.hospital.usecase.paciente;
+
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.usecase.paciente.result.AltaPacienteResult;
+import com.example.hospital.usecase.paciente.result.OperacionAlta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 📨 Alta asíncrona: registra la operación, responde de inmediato con su ID y ejecuta
+ * DarAltaPacienteUseCase en un pipeline interno acotado (pool + cola de tamaño fijo).
+ * Si la cola está llena se responde 503 para que el cliente reintente, en vez de acumular trabajo.
+ *
+ * Las operaciones terminadas se conservan durante "retencion" para poder consultarlas.
+ * Mientras un alta está pendiente, una nueva solicitud para el mismo paciente devuelve la misma operación.
+ *
+ * ⚠️ Las operaciones viven en memoria de cada instancia: con varias réplicas el balanceador debe usar
+ * afinidad de sesión (sticky) por cliente, para que ?async=true y GET /api/operaciones/{id} lleguen al mismo nodo.
+ * Otra réplica responde 404 a una operación que no registró y no detecta un alta en curso en otro nodo.
+ * Al reiniciar la instancia se pierden las operaciones pendientes y terminadas.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AltaAsincronaUseCase {
+
+    private final DarAltaPacienteUseCase darAltaPacienteUseCase;
+    private final ExecutorService pipeline;
+    private final Duration retencion;
+    private final Consumer<Duration> registroLatencia;
+
+    private final Map<String, OperacionAlta> operaciones = new ConcurrentHashMap<>();
+    private final Map<String, String> enCursoPorPaciente = new ConcurrentHashMap<>();
+
+    /**
+     * Encola el alta del paciente y retorna la operación en estado PENDIENTE.
+     */
+    public OperacionAlta solicitarAlta(String idPaciente) {
+        OperacionAlta operacion = OperacionAlta.pendiente(UUID.randomUUID().toString(), idPaciente);
+        String idNuevo = operacion.id();
+        operaciones.put(idNuevo, operacion);
+
+        String idExistente = enCursoPorPaciente.putIfAbsent(idPaciente, idNuevo);
+        if (idExistente != null) {
+            operaciones.remove(idNuevo);
+            OperacionAlta existente = operaciones.get(idExistente);
+            if (existente != null) {
+                log.info("🔁 Ya hay un alta en curso para el paciente {}: operación {}", idPaciente, idExistente);
+                return existente;
+            }
+            operaciones.put(idNuevo, operacion);
+            enCursoPorPaciente.put(idPaciente, idNuevo);
+        }
+
+        try {
+            pipeline.execute(() -> ejecutar(operacion));
+        } catch (RejectedExecutionException e) {
+            operaciones.remove(idNuevo);
+            enCursoPorPaciente.remove(idPaciente, idNuevo);
+            log.warn("🚦 Cola de altas llena, se rechaza el alta del paciente {}", idPaciente);
+            throw new BusinessException(
+                    "SERVICE_UNAVAILABLE",
+                    "Hay demasiadas altas en proceso, intente de nuevo en unos segundos",
+                    "503"
+            );
+        }
+
+        log.info("📥 Alta del paciente {} encolada como operación {}", idPaciente, idNuevo);
+        return operacion;
+    }
+
+    /**
+     * Consulta una operación de alta por su ID.
+     */
+    public Optional<OperacionAlta> consultarOperacion(String idOperacion) {
+        return Optional.ofNullable(operaciones.get(idOperacion));
+    }
+
+    /**
+     * Elimina las operaciones terminadas hace más de "retencion".
+     */
+    public int purgarTerminadas() {
+        Instant limite = Instant.now().minus(retencion);
+        int antes = operaciones.size();
+        operaciones.values().removeIf(op -> op.terminada() && op.terminadaEn().isBefore(limite));
+        return antes - operaciones.size();
+    }
+
+    private void ejecutar(OperacionAlta pendiente) {
+        operaciones.put(pendiente.id(), pendiente.enProceso());
+        OperacionAlta terminada;
+        try {
+            AltaPacienteResult resultado = darAltaPacienteUseCase.darAlta(pendiente.pacienteId());
+            terminada = pendiente.completada(resultado);
+            log.info("✅ Operación {} completada", pendiente.id());
+        } catch (BusinessException e) {
+            terminada = pendiente.fallida(e.getCode(), e.getDetail());
+            log.warn("⚠️ Operación {} fallida: {}", pendiente.id(), e.getDetail());
+        } catch (Exception e) {
+            terminada = pendiente.fallida("500", e.getMessage());
+            log.error("❌ Operación {} fallida: {}", pendiente.id(), e.getMessage(), e);
+        }
+
+        operaciones.put(pendiente.id(), terminada);
+        enCursoPorPaciente.remove(pendiente.pacienteId(), pendiente.id());
+        registroLatencia.accept(Duration.between(pendiente.creadaEn(), terminada.terminadaEn()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.hospital.usecase.paciente;
+
+import com.example.hospital.model.Paciente;
+import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.utils.CacheTtl;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * 🗃️ Búsquedas de admisión por documento / historia clínica, con caché agrupada por id del paciente.
+ *
+ * Todos los casos de uso que escriben un paciente (crear, actualizar, eliminar, altas individuales,
+ * en lote o asíncronas, liberación de camilla) comparten esta instancia y llaman a invalidar después
+ * de confirmar la escritura: así /documento y /historia no responden un estado viejo hasta que venza el TTL.
+ *
+ * Cada lectura devuelve una copia: quien la modifique no altera lo que ven las demás solicitudes.
+ */
+@RequiredArgsConstructor
+public class BusquedasPacientes {
+
+    private static final String POR_DOCUMENTO = "documento:";
+    private static final String POR_HISTORIA = "historia:";
+
+    private final PacienteRepositoryPort pacienteRepository;
+    private final CacheTtl<String, Paciente> cache;
+
+    public Optional<Paciente> porDocumento(String documentoIdentidad) {
+        return cache.obtener(POR_DOCUMENTO + documentoIdentidad,
+                clave -> pacienteRepository.findByDocumentoIdentidad(documentoIdentidad)).map(BusquedasPacientes::copia);
+    }
+
+    public Optional<Paciente> porHistoriaClinica(String numeroHistoriaClinica) {
+        return cache.obtener(POR_HISTORIA + numeroHistoriaClinica,
+                clave -> pacienteRepository.findByNumeroHistoriaClinica(numeroHistoriaClinica)).map(BusquedasPacientes::copia);
+    }
+
+    /**
+     * Quita las entradas del paciente (pueden estar bajo su documento o historia anteriores) y las de sus valores actuales.
+     */
+    public void invalidar(Paciente paciente) {
+        invalidar(paciente.getId());
+        cache.invalidar(POR_DOCUMENTO + paciente.getDocumentoIdentidad());
+        cache.invalidar(POR_HISTORIA + paciente.getNumeroHistoriaClinica());
+    }
+
+    public void invalidar(String idPaciente) {
+        if (idPaciente != null) {
+            cache.invalidarGrupo(idPaciente);
+        }
+    }
+
+    public void invalidarTodos(Collection<String> idsPacientes) {
+        idsPacientes.forEach(this::invalidar);
+    }
+
+    private static Paciente copia(Paciente origen) {
+        Paciente copia = new Paciente(origen.getId(), origen.getPrimerNombre(), origen.getSegundoNombre(),
+                origen.getPrimerApellido(), origen.getSegundoApellido(), origen.getDocumentoIdentidad(),
+                origen.getFechaNacimiento() != null ? (Date) origen.getFechaNacimiento().clone() : null,
+                origen.getTipoSangre(), origen.getGenero(), origen.getAlergias(), origen.getEstado(),
+                origen.getFechaAlta(), origen.getNumeroHistoriaClinica(), origen.getEps());
+        copia.setVersion(origen.getVersion());
+        return copia;
+    }
+}
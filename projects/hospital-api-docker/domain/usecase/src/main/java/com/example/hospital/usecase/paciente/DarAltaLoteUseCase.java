@@ -0,0 +1,195 @@
+package com.example.hospital.usecase.paciente;
+
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.exception.MongoConnectionException;
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaLiberadaEvent;
+import com.example.hospital.model.OutboxEvent;
+import com.example.hospital.model.Paciente;
+import com.example.hospital.ports.out.CamillaRepositoryPort;
+import com.example.hospital.ports.out.OutboxRepositoryPort;
+import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.ports.out.UnitOfWorkPort;
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
+import com.example.hospital.usecase.paciente.result.AltaLoteResult;
+import com.example.hospital.usecase.paciente.result.AltaLoteResult.ResultadoAlta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caso de uso: Dar de alta a varios pacientes a la vez (evacuación o traslado de un pabellón).
+ * Hace el mismo trabajo que DarAltaPacienteUseCase para N pacientes, pero con un número fijo de viajes a Mongo:
+ * 1️⃣ Lee todos los pacientes y todas sus camillas con dos consultas $in.
+ * 2️⃣ Valida cada paciente por separado: los que no pueden darse de alta quedan como fallidos.
+ * 3️⃣ En una transacción: un updateMany de pacientes, un bulkWrite de camillas y un insertMany de eventos en el outbox.
+ * 4️⃣ El relay del outbox publica los eventos en lotes con publisher confirms.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DarAltaLoteUseCase {
+
+    private final PacienteRepositoryPort pacienteRepository;
+    private final CamillaRepositoryPort camillaRepository;
+    private final OutboxRepositoryPort outboxRepository;
+    private final UnitOfWorkPort unitOfWork;
+    private final DisponibilidadCamillasIndex disponibilidad;
+    private final BusquedasPacientes busquedas;
+    private final int maxPacientes;
+
+    /**
+     * Da de alta a los pacientes y retorna un resultado por paciente (los repetidos se procesan una vez).
+     */
+    public AltaLoteResult darAlta(Collection<String> idsPacientes) {
+        Set<String> ids = validarLote(idsPacientes);
+        log.info("🚑 Iniciando alta en lote de {} pacientes", ids.size());
+
+        Map<String, Paciente> pacientes;
+        Map<String, Camilla> camillas;
+        try {
+            pacientes = pacienteRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Paciente::getId, Function.identity()));
+            camillas = camillaRepository.findByPacienteIds(ids).stream()
+                    .filter(c -> "Ocupada".equalsIgnoreCase(c.getEstado()))
+                    .collect(Collectors.toMap(Camilla::getPacienteId, Function.identity(), (a, b) -> a));
+        } catch (Exception e) {
+            log.error("❌ Error al consultar los pacientes del lote: {}", e.getMessage(), e);
+            throw new MongoConnectionException("Error al conectar con la base de datos para el alta en lote", e);
+        }
+
+        Map<String, ResultadoAlta> resultados = new HashMap<>();
+        List<Paciente> validos = new ArrayList<>();
+        for (String id : ids) {
+            Paciente paciente = pacientes.get(id);
+            ResultadoAlta rechazo = validar(id, paciente);
+            if (rechazo != null) {
+                resultados.put(id, rechazo);
+            } else {
+                validos.add(paciente);
+            }
+        }
+
+        if (!validos.isEmpty()) {
+            String fechaAlta = LocalDateTime.now().toString();
+            List<Camilla> liberadas = unitOfWork.executeInTransaction(
+                    () -> aplicarAltas(validos, camillas, fechaAlta, resultados));
+            // El índice y la caché de búsquedas se actualizan solo después del commit
+            busquedas.invalidarTodos(validos.stream().map(Paciente::getId).toList());
+            liberadas.forEach(c -> disponibilidad.marcarDisponible(c.getId(), c.getFechaFin()));
+        }
+
+        List<ResultadoAlta> ordenados = ids.stream().map(resultados::get).collect(Collectors.toList());
+        AltaLoteResult resultado = new AltaLoteResult(ordenados);
+        log.info("🏁 Alta en lote terminada: {} exitosas, {} fallidas", resultado.exitosas(), resultado.fallidas());
+        return resultado;
+    }
+
+    private Set<String> validarLote(Collection<String> idsPacientes) {
+        if (idsPacientes == null || idsPacientes.isEmpty()) {
+            throw new BusinessException("BAD_REQUEST", "Debe indicar al menos un paciente para el alta en lote", "400");
+        }
+        Set<String> ids = new LinkedHashSet<>(idsPacientes);
+        if (ids.size() > maxPacientes) {
+            throw new BusinessException(
+                    "BAD_REQUEST",
+                    "El alta en lote admite como máximo " + maxPacientes + " pacientes (se enviaron " + ids.size() + ")",
+                    "400"
+            );
+        }
+        return ids;
+    }
+
+    /**
+     * Mismas reglas que el alta individual; retorna null si el paciente puede darse de alta.
+     */
+    private ResultadoAlta validar(String id, Paciente paciente) {
+        if (paciente == null) {
+            return ResultadoAlta.fallido(id, "404", "Paciente no encontrado con ID: " + id);
+        }
+        if ("Alta".equalsIgnoreCase(paciente.getEstado())) {
+            return ResultadoAlta.fallido(id, "409",
+                    "El paciente ya fue dado de alta anteriormente (fecha: " + paciente.getFechaAlta() + ")");
+        }
+        if (!"Hospitalizado".equalsIgnoreCase(paciente.getEstado())) {
+            return ResultadoAlta.fallido(id, "400",
+                    "El paciente no puede darse de alta desde el estado: " + paciente.getEstado());
+        }
+        return null;
+    }
+
+    /**
+     * Escrituras del lote; las tres comparten la sesión de la transacción.
+     * Retorna las camillas liberadas.
+     */
+    private List<Camilla> aplicarAltas(List<Paciente> validos,
+                                       Map<String, Camilla> camillas,
+                                       String fechaAlta,
+                                       Map<String, ResultadoAlta> resultados) {
+        Set<String> dadosDeAlta;
+        try {
+            dadosDeAlta = pacienteRepository.darAltaAll(validos.stream().map(Paciente::getId).toList(), fechaAlta);
+        } catch (Exception e) {
+            log.error("❌ Error al guardar el alta en lote: {}", e.getMessage(), e);
+            throw new MongoConnectionException("Error al guardar el alta en lote", e);
+        }
+
+        List<Paciente> conAlta = new ArrayList<>();
+        List<CamillaLiberadaEvent> eventos = new ArrayList<>();
+        for (Paciente paciente : validos) {
+            if (!dadosDeAlta.contains(paciente.getId())) {
+                // Otra operación le dio el alta entre la lectura y la escritura
+                resultados.put(paciente.getId(), ResultadoAlta.fallido(paciente.getId(), "409",
+                        "El paciente fue dado de alta por otra operación"));
+                continue;
+            }
+            paciente.setEstado("Alta");
+            paciente.setFechaAlta(fechaAlta);
+            paciente.setVersion(paciente.getVersion() == null ? 1L : paciente.getVersion() + 1);
+            conAlta.add(paciente);
+
+            Camilla camilla = camillas.get(paciente.getId());
+            if (camilla != null) {
+                eventos.add(new CamillaLiberadaEvent(camilla.getId(), paciente.getId(), fechaAlta, "system_auto"));
+            }
+        }
+
+        Set<String> idsLiberadas;
+        try {
+            idsLiberadas = camillaRepository.releaseAll(eventos);
+            // Solo se publican las liberaciones que ocurrieron (la camilla pudo cambiar después de la lectura)
+            outboxRepository.saveAll(eventos.stream()
+                    .filter(evento -> idsLiberadas.contains(evento.getCamillaId()))
+                    .map(evento -> OutboxEvent.nuevo("hospital.camilla.disponible", evento))
+                    .toList());
+        } catch (Exception e) {
+            log.error("❌ Error al liberar las camillas del lote: {}", e.getMessage(), e);
+            throw new MongoConnectionException("Error al liberar las camillas del alta en lote", e);
+        }
+
+        List<Camilla> liberadas = new ArrayList<>();
+        for (Paciente paciente : conAlta) {
+            Camilla camilla = camillas.get(paciente.getId());
+            if (camilla != null && idsLiberadas.contains(camilla.getId())) {
+                camilla.setEstado("Disponible");
+                camilla.setPaciente(null);
+                camilla.setFechaFin(fechaAlta);
+                liberadas.add(camilla);
+            } else {
+                camilla = null;
+            }
+            resultados.put(paciente.getId(), ResultadoAlta.exitoso(paciente, camilla));
+        }
+        log.info("🛏️ {} camillas liberadas y registradas en el outbox", liberadas.size());
+        return liberadas;
+    }
+}
@@ -5,25 +5,39 @@ import com.example.hospital.exception.BusinessException;
 import com.example.hospital.exception.MongoConnectionException;
 import com.example.hospital.model.Camilla;
 import com.example.hospital.model.CamillaLiberadaEvent;
+import com.example.hospital.model.OutboxEvent;
 import com.example.hospital.model.Paciente;
-import com.example.hospital.ports.input.EventPublisherPort;
 import com.example.hospital.ports.out.CamillaRepositoryPort;
+import com.example.hospital.ports.out.OutboxRepositoryPort;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.ports.out.UnitOfWorkPort;
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
 import com.example.hospital.usecase.paciente.result.AltaPacienteResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Caso de uso: Dar de alta a un paciente.
- * 1️⃣ Busca el paciente.
+ * 1️⃣ Busca el paciente y, en paralelo, la camilla que ocupa (las dos lecturas solo dependen del ID).
  * 2️⃣ Valida que esté en un estado válido para alta.
  * 3️⃣ Cambia su estado a "Alta".
  * 4️⃣ Actualiza la fecha.
  * 5️⃣ Libera la camilla asociada (cambia a "Disponible").
- * 6️⃣ Publica el evento CamillaLiberadaEvent en RabbitMQ.
- * 7️⃣ El listener lo recibe y lo confirma.
+ * 6️⃣ Registra el evento CamillaLiberadaEvent en el outbox, en la misma transacción que los pasos 3 a 5.
+ * 7️⃣ El relay del outbox lo publica en RabbitMQ y el listener lo recibe y lo confirma.
+ *
+ * Todo el flujo tiene un plazo (timeout): si las lecturas no terminan a tiempo se responde 504
+ * sin haber escrito nada. Las escrituras van juntas en la transacción y no se cortan a la mitad.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -31,7 +45,12 @@ public class DarAltaPacienteUseCase {
 
     private final PacienteRepositoryPort pacienteRepository;
     private final CamillaRepositoryPort camillaRepository;
-    private final EventPublisherPort eventPublisher;
+    private final OutboxRepositoryPort outboxRepository;
+    private final UnitOfWorkPort unitOfWork;
+    private final DisponibilidadCamillasIndex disponibilidad;
+    private final BusquedasPacientes busquedas;
+    private final Executor ioExecutor;
+    private final Duration timeout;
 
     /**
      * Ejecuta el flujo completo de alta y retorna tanto el paciente como la camilla liberada.
@@ -39,16 +58,78 @@ public class DarAltaPacienteUseCase {
     public AltaPacienteResult darAlta(String idPaciente) {
         log.info("🚪 Iniciando proceso de alta para paciente ID: {}", idPaciente);
 
-        Paciente paciente = obtenerPaciente(idPaciente);
-        validarEstadoPaciente(paciente);
-        actualizarEstadoAlta(paciente);
+        long limite = System.nanoTime() + timeout.toNanos();
 
-        Camilla camillaLiberada = liberarCamillaYPublicarEvento(paciente);
+        // La búsqueda de la camilla no depende del paciente: ambas lecturas van en paralelo
+        CompletableFuture<Paciente> pacienteFuture =
+                CompletableFuture.supplyAsync(() -> obtenerPaciente(idPaciente), ioExecutor);
+        CompletableFuture<Optional<Camilla>> camillaFuture =
+                CompletableFuture.supplyAsync(() -> camillaRepository.findByPacienteId(idPaciente), ioExecutor);
+
+        Paciente paciente;
+        try {
+            paciente = esperar(pacienteFuture, limite, idPaciente);
+            validarEstadoPaciente(paciente);
+        } catch (RuntimeException e) {
+            camillaFuture.cancel(true);
+            throw e;
+        }
+        Optional<Camilla> camilla = esperar(camillaFuture, limite, idPaciente);
+
+        if (System.nanoTime() >= limite) {
+            throw tiempoAgotado(idPaciente);
+        }
+
+        // La publicación en RabbitMQ ya no ocurre en este hilo: el evento queda en el outbox
+        // junto con los cambios de paciente y camilla, y el relay lo entrega después.
+        // Las escrituras comparten la sesión de la transacción, por eso se hacen en secuencia.
+        Camilla camillaLiberada = unitOfWork.executeInTransaction(() -> {
+            actualizarEstadoAlta(paciente);
+            return camilla.map(c -> liberarCamillaYRegistrarEvento(c, paciente)).orElse(null);
+        });
+
+        // El índice y la caché de búsquedas se actualizan solo después del commit
+        busquedas.invalidar(paciente.getId());
+        if (camillaLiberada != null) {
+            disponibilidad.marcarDisponible(camillaLiberada.getId(), camillaLiberada.getFechaFin());
+        }
 
         log.info("🏁 Proceso de alta completado para paciente {}", paciente.getId());
         return new AltaPacienteResult(paciente, camillaLiberada);
     }
 
+    /**
+     * Espera una lectura paralela sin pasar del plazo del flujo y propaga su excepción original.
+     */
+    private <T> T esperar(CompletableFuture<T> future, long limite, String idPaciente) {
+        try {
+            return future.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw tiempoAgotado(idPaciente);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new MongoConnectionException("Error en el alta del paciente " + idPaciente, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw tiempoAgotado(idPaciente);
+        } catch (CancellationException e) {
+            throw tiempoAgotado(idPaciente);
+        }
+    }
+
+    private BusinessException tiempoAgotado(String idPaciente) {
+        log.warn("⏱️ El alta del paciente {} superó el plazo de {} ms", idPaciente, timeout.toMillis());
+        return new BusinessException(
+                "GATEWAY_TIMEOUT",
+                "El alta del paciente " + idPaciente + " no terminó dentro del plazo de " + timeout.toMillis() + " ms",
+                "504"
+        );
+    }
+
     /**
      * Obtiene el paciente desde el repositorio y valida su existencia.
      */
@@ -100,6 +181,9 @@ public class DarAltaPacienteUseCase {
         try {
             pacienteRepository.save(paciente);
             log.info("✅ Paciente {} dado de alta correctamente.", paciente.getPrimerNombre());
+        } catch (BusinessException e) {
+            // 409: otra operación modificó al paciente después de la lectura
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error al guardar estado de alta del paciente {}: {}", paciente.getId(), e.getMessage(), e);
             throw new MongoConnectionException("Error al guardar alta del paciente " + paciente.getId(), e);
@@ -107,49 +191,46 @@ public class DarAltaPacienteUseCase {
     }
 
     /**
-     * Libera la camilla asociada y publica el evento de liberación en RabbitMQ.
+     * Libera la camilla asociada y registra el evento de liberación en el outbox.
+     * La camilla se leyó antes de la transacción: se libera con una escritura condicional (sigue "Ocupada"
+     * por este paciente). Si otra asignación o liberación la cambió entretanto, el alta falla con 409
+     * y la transacción deshace el cambio del paciente.
      */
-    private Camilla liberarCamillaYPublicarEvento(Paciente paciente) {
-        return camillaRepository.findByPacienteId(paciente.getId())
-                .map(camilla -> {
-                    if (!"Ocupada".equalsIgnoreCase(camilla.getEstado())) {
-                        log.warn("⚠️ Camilla {} no está ocupada, no se liberará.", camilla.getId());
-                        return null;
-                    }
-
-                    camilla.setEstado("Disponible");
-                    camilla.setPaciente(null);
-                    camilla.setFechaFin(paciente.getFechaAlta());
-
-                    try {
-                        camillaRepository.save(camilla);
-                        log.info("🛏️ Camilla {} liberada exitosamente.", camilla.getId());
-                    } catch (Exception e) {
-                        log.error("❌ Error al guardar estado de la camilla {}: {}", camilla.getId(), e.getMessage(), e);
-                        throw new MongoConnectionException("Error al liberar camilla " + camilla.getId(), e);
-                    }
-
-                    CamillaLiberadaEvent evento = new CamillaLiberadaEvent(
-                            camilla.getId(),
-                            paciente.getId(),
-                            paciente.getFechaAlta(),
-                            "system_auto"
-                    );
-
-                    try {
-                        eventPublisher.publish("hospital.camilla.disponible", evento);
-                        log.info("📤 Evento publicado correctamente para camilla {}", camilla.getId());
-                    } catch (Exception e) {
-                        log.error("⚠️ Error al publicar evento RabbitMQ para camilla {}: {}", camilla.getId(), e.getMessage(), e);
-                        throw new BusinessException(
-                                "INTERNAL_ERROR",
-                                "Fallo al publicar evento de liberación de camilla",
-                                "500"
-                        );
-                    }
-
-                    return camilla;
-                })
-                .orElse(null);
+    private Camilla liberarCamillaYRegistrarEvento(Camilla camilla, Paciente paciente) {
+        if (!"Ocupada".equalsIgnoreCase(camilla.getEstado())) {
+            log.warn("⚠️ Camilla {} no está ocupada, no se liberará.", camilla.getId());
+            return null;
+        }
+
+        CamillaLiberadaEvent evento = new CamillaLiberadaEvent(
+                camilla.getId(),
+                paciente.getId(),
+                paciente.getFechaAlta(),
+                "system_auto"
+        );
+
+        Camilla liberada;
+        try {
+            liberada = camillaRepository.liberarSiOcupadaPor(camilla.getId(), paciente.getId(), paciente.getFechaAlta())
+                    .orElseThrow(() -> camillaModificada(camilla.getId(), paciente.getId()));
+            outboxRepository.save(OutboxEvent.nuevo("hospital.camilla.disponible", evento));
+            log.info("🛏️ Camilla {} liberada y evento registrado en el outbox.", camilla.getId());
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("❌ Error al guardar estado de la camilla {}: {}", camilla.getId(), e.getMessage(), e);
+            throw new MongoConnectionException("Error al liberar camilla " + camilla.getId(), e);
+        }
+
+        return liberada;
+    }
+
+    private BusinessException camillaModificada(String idCamilla, String idPaciente) {
+        log.warn("⚠️ La camilla {} cambió después de leerla (ya no está ocupada por {})", idCamilla, idPaciente);
+        return new BusinessException(
+                "CONFLICT",
+                "La camilla " + idCamilla + " fue modificada por otra operación; reintente el alta",
+                "409"
+        );
     }
-}
\ No newline at end of file
+}
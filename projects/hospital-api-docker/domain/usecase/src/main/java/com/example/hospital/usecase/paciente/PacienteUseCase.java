@@ -1,14 +1,24 @@
 package com.example.hospital.usecase.paciente;
 
 
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.model.Pagina;
 import com.example.hospital.model.Paciente;
+import com.example.hospital.model.PacienteFiltro;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.utils.PaginacionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * 💊 Caso de uso para la gestión de Pacientes.
@@ -18,7 +28,15 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class PacienteUseCase {
 
+    // Campos que se pueden pedir en los listados con proyección (mismo nombre en el dominio y en Mongo)
+    private static final Set<String> CAMPOS_PROYECTABLES = Set.of(
+            "primerNombre", "segundoNombre", "primerApellido", "segundoApellido", "documentoIdentidad",
+            "fechaNacimiento", "tipoSangre", "genero", "alergias", "estado", "fechaAlta",
+            "numeroHistoriaClinica", "eps", "version");
+
     private final PacienteRepositoryPort pacienteRepository;
+    // Búsquedas de admisión por documento / historia clínica; compartida con los casos de uso de alta
+    private final BusquedasPacientes busquedas;
 
     /**
      * Retorna todos los pacientes.
@@ -28,6 +46,82 @@ public class PacienteUseCase {
         return pacienteRepository != null ? pacienteRepository.findAll() : Collections.emptyList();
     }
 
+    /**
+     * Retorna todos los pacientes leyendo solo "campos" (y el id); null = todos los campos.
+     */
+    public List<Paciente> obtenerTodosLosPacientes(Collection<String> campos) {
+        if (campos == null) {
+            return obtenerTodosLosPacientes();
+        }
+        Set<String> proyeccion = validarCampos(campos);
+        log.info("📋 Obteniendo todos los pacientes (campos={})...", proyeccion);
+        return pacienteRepository.findAll(proyeccion);
+    }
+
+    /**
+     * Retorna una página de pacientes (paginación por cursor), opcionalmente filtrados por estado.
+     */
+    public Pagina<Paciente> obtenerPacientesPaginados(String cursor, Integer limit, String estado) {
+        int limite = PaginacionUtils.normalizarLimite(limit);
+        log.info("📄 Página de pacientes: cursor={}, limit={}, estado={}", cursor, limite, estado);
+        return pacienteRepository.findPage(cursor, limite, estado);
+    }
+
+    /**
+     * Página de pacientes filtrada por estado, EPS, tipo de sangre y rango de fecha de alta.
+     * El filtro se aplica en la base de datos; con "campos" solo se leen esos campos (null = todos).
+     */
+    public Pagina<Paciente> filtrarPacientes(PacienteFiltro filtro, String cursor, Integer limit, Collection<String> campos) {
+        PacienteFiltro aplicado = filtro != null ? filtro : PacienteFiltro.sinFiltros();
+        validarRangoAlta(aplicado);
+        Set<String> proyeccion = campos != null ? validarCampos(campos) : null;
+        int limite = PaginacionUtils.normalizarLimite(limit);
+        log.info("🔎 Pacientes filtrados: {} cursor={}, limit={}, campos={}", aplicado, cursor, limite, proyeccion);
+        return pacienteRepository.findPage(aplicado, cursor, limite, proyeccion);
+    }
+
+    private void validarRangoAlta(PacienteFiltro filtro) {
+        LocalDate desde = fecha(filtro.altaDesde(), "altaDesde");
+        LocalDate hasta = fecha(filtro.altaHasta(), "altaHasta");
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new BusinessException("BAD_REQUEST", "altaDesde no puede ser posterior a altaHasta", "400");
+        }
+        // El rango de fechas solo tiene índice junto con el estado (estado_id_fechaAlta); sin él sería un COLLSCAN
+        if ((desde != null || hasta != null) && filtro.estado() == null) {
+            throw new BusinessException("BAD_REQUEST", "altaDesde / altaHasta requieren el filtro estado", "400");
+        }
+    }
+
+    private LocalDate fecha(String valor, String parametro) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("BAD_REQUEST", parametro + " debe tener el formato yyyy-MM-dd: " + valor, "400");
+        }
+    }
+
+    // El id siempre se incluye (es el cursor); cualquier otro nombre desconocido es un error del cliente
+    private Set<String> validarCampos(Collection<String> campos) {
+        Set<String> proyeccion = new LinkedHashSet<>(campos);
+        proyeccion.remove("id");
+        List<String> desconocidos = proyeccion.stream().filter(c -> !CAMPOS_PROYECTABLES.contains(c)).toList();
+        if (!desconocidos.isEmpty()) {
+            throw new BusinessException("BAD_REQUEST", "Campos de paciente desconocidos: " + desconocidos, "400");
+        }
+        return proyeccion;
+    }
+
+    /**
+     * Exporta todos los pacientes como un Stream sobre un cursor (debe cerrarse al terminar).
+     */
+    public Stream<Paciente> exportarPacientes() {
+        log.info("📦 Exportando pacientes (cursor)...");
+        return pacienteRepository.streamAll();
+    }
+
     /**
      * Busca un paciente por ID.
      */
@@ -36,12 +130,54 @@ public class PacienteUseCase {
         return pacienteRepository.findById(id);
     }
 
+    /**
+     * Busca un paciente por documento de identidad (índice único, con caché).
+     */
+    public Optional<Paciente> obtenerPacientePorDocumento(String documentoIdentidad) {
+        log.info("🔍 Buscando paciente por documento: {}", documentoIdentidad);
+        return busquedas.porDocumento(documentoIdentidad);
+    }
+
+    /**
+     * Busca un paciente por número de historia clínica (índice único, con caché).
+     */
+    public Optional<Paciente> obtenerPacientePorHistoriaClinica(String numeroHistoriaClinica) {
+        log.info("🔍 Buscando paciente por historia clínica: {}", numeroHistoriaClinica);
+        return busquedas.porHistoriaClinica(numeroHistoriaClinica);
+    }
+
+    /**
+     * Busca pacientes por nombre y apellidos: "maria lop" encuentra a "María López".
+     * Cada término debe ser el comienzo de alguno de los nombres; los resultados vienen ordenados por relevancia.
+     */
+    public List<Paciente> buscarPacientesPorNombre(String texto, Integer limit) {
+        if (texto == null || texto.isBlank()) {
+            throw new BusinessException("BAD_REQUEST", "El texto de búsqueda es obligatorio", "400");
+        }
+        int limite = PaginacionUtils.normalizarLimite(limit);
+        log.info("🔍 Buscando pacientes por nombre: '{}' (limit={})", texto, limite);
+        return pacienteRepository.buscarPorNombre(texto, limite);
+    }
+
+    /**
+     * Busca varios pacientes en una sola consulta (usado por el DataLoader de GraphQL).
+     */
+    public List<Paciente> obtenerPacientesPorIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        log.info("🔍 Buscando {} pacientes por ID en lote", ids.size());
+        return pacienteRepository.findAllById(ids);
+    }
+
     /**
      * Crea un nuevo paciente.
      */
     public Paciente crearPaciente(Paciente paciente) {
         log.info("🧬 Creando nuevo paciente: {}", paciente.getPrimerNombre());
-        return pacienteRepository.save(paciente);
+        Paciente creado = pacienteRepository.save(paciente);
+        busquedas.invalidar(creado);
+        return creado;
     }
 
     /**
@@ -53,27 +189,51 @@ public class PacienteUseCase {
             String eps,
             String estado
     ) {
-        log.info("♻️ Iniciando actualización de paciente ID: {}", id);
+        Paciente cambios = new Paciente();
+        cambios.setAlergias(alergias);
+        cambios.setEps(eps);
+        cambios.setEstado(estado);
+        return actualizarPaciente(id, cambios, null);
+    }
 
+    /**
+     * Actualiza solo los campos no nulos de "cambios" con una única escritura en Mongo (sin leer antes el documento).
+     * Con versionEsperada, si otro cambio se guardó primero la edición falla con 409 en vez de sobrescribirlo.
+     */
+    public Paciente actualizarPaciente(String id, Paciente cambios, Long versionEsperada) {
+        log.info("♻️ Iniciando actualización de paciente ID: {} (versión esperada: {})", id, versionEsperada);
+
+        Optional<Paciente> actualizado;
         try {
-            return pacienteRepository.findById(id)
-                    .map(p -> {
-                        if (alergias != null) p.setAlergias(alergias);
-                        if (eps != null) p.setEps(eps);
-                        if (estado != null) p.setEstado(estado);
-
-                        Paciente actualizado = pacienteRepository.save(p);
-                        log.info("✅ Paciente actualizado exitosamente: {}", actualizado.getId());
-                        return actualizado;
-                    })
-                    .orElseThrow(() -> {
-                        log.warn("⚠️ Paciente con ID {} no encontrado para actualización", id);
-                        return new RuntimeException("Paciente no encontrado con id: " + id);
-                    });
+            actualizado = pacienteRepository.patch(id, cambios, versionEsperada);
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error al actualizar paciente con ID {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Error al actualizar paciente", e);
         }
+
+        return actualizado
+                .map(p -> {
+                    busquedas.invalidar(p);
+                    log.info("✅ Paciente actualizado exitosamente: {} (versión {})", p.getId(), p.getVersion());
+                    return p;
+                })
+                .orElseThrow(() -> noActualizado(id, versionEsperada));
+    }
+
+    // Sin resultado: o el paciente no existe o su versión ya no es la esperada
+    private BusinessException noActualizado(String id, Long versionEsperada) {
+        if (versionEsperada != null && pacienteRepository.existsById(id)) {
+            log.warn("⚠️ Paciente {} modificado por otra operación, versión esperada {}", id, versionEsperada);
+            return new BusinessException(
+                    "CONFLICT",
+                    "El paciente " + id + " fue modificado por otra operación (versión esperada: " + versionEsperada + ")",
+                    "409"
+            );
+        }
+        log.warn("⚠️ Paciente con ID {} no encontrado para actualización", id);
+        return new BusinessException("NOT_FOUND", "Paciente no encontrado con id: " + id, "404");
     }
 
     /**
@@ -86,6 +246,7 @@ public class PacienteUseCase {
             throw new RuntimeException("Paciente no encontrado con id: " + id);
         }
         pacienteRepository.deleteById(id);
+        busquedas.invalidar(id);
         log.info("✅ Paciente eliminado exitosamente");
     }
 }
@@ -0,0 +1,43 @@
+package com.example.hospital.usecase.paciente.result;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Paciente;
+
+import java.util.List;
+
+/**
+ * 🚑 Resultado de un alta en lote: una entrada por paciente solicitado, en el mismo orden.
+ * Un paciente que falla (no existe, ya tenía alta, ...) no impide el alta de los demás.
+ */
+public record AltaLoteResult(List<ResultadoAlta> resultados) {
+
+    /**
+     * Resultado de un paciente: con exito = true trae el paciente y la camilla liberada (si tenía);
+     * si no, el código y detalle del error.
+     */
+    public record ResultadoAlta(
+            String pacienteId,
+            boolean exito,
+            Paciente paciente,
+            Camilla camilla,
+            String errorCodigo,
+            String errorDetalle
+    ) {
+
+        public static ResultadoAlta exitoso(Paciente paciente, Camilla camilla) {
+            return new ResultadoAlta(paciente.getId(), true, paciente, camilla, null, null);
+        }
+
+        public static ResultadoAlta fallido(String pacienteId, String codigo, String detalle) {
+            return new ResultadoAlta(pacienteId, false, null, null, codigo, detalle);
+        }
+    }
+
+    public long exitosas() {
+        return resultados.stream().filter(ResultadoAlta::exito).count();
+    }
+
+    public long fallidas() {
+        return resultados.size() - exitosas();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hospital.usecase.paciente.result;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Paciente;
+
+import java.time.Instant;
+
+/**
+ * ⏳ Estado de un alta asíncrona (PUT /alta?async=true).
+ * Cada cambio de estado crea una nueva instancia; el resultado solo existe cuando está COMPLETADA.
+ */
+public record OperacionAlta(
+        String id,
+        String pacienteId,
+        Estado estado,
+        Instant creadaEn,
+        Instant terminadaEn,
+        AltaPacienteResult resultado,
+        String errorCodigo,
+        String errorDetalle
+) {
+
+    public enum Estado { PENDIENTE, EN_PROCESO, COMPLETADA, FALLIDA }
+
+    public static OperacionAlta pendiente(String id, String pacienteId) {
+        return new OperacionAlta(id, pacienteId, Estado.PENDIENTE, Instant.now(), null, null, null, null);
+    }
+
+    public OperacionAlta enProceso() {
+        return new OperacionAlta(id, pacienteId, Estado.EN_PROCESO, creadaEn, null, null, null, null);
+    }
+
+    public OperacionAlta completada(AltaPacienteResult resultado) {
+        return new OperacionAlta(id, pacienteId, Estado.COMPLETADA, creadaEn, Instant.now(), resultado, null, null);
+    }
+
+    public OperacionAlta fallida(String codigo, String detalle) {
+        return new OperacionAlta(id, pacienteId, Estado.FALLIDA, creadaEn, Instant.now(), null, codigo, detalle);
+    }
+
+    public boolean terminada() {
+        return estado == Estado.COMPLETADA || estado == Estado.FALLIDA;
+    }
+
+    // Accesos directos usados por el tipo OperacionAlta de GraphQL
+    public Paciente paciente() {
+        return resultado != null ? resultado.paciente() : null;
+    }
+
+    public Camilla camilla() {
+        return resultado != null ? resultado.camilla() : null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.hospital.utils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 🗃️ Caché en memoria acotada y con expiración.
+ * - Como máximo "maxEntradas": al superarlo se descarta la menos usada (LRU).
+ * - Cada entrada vive "ttl" desde que se guarda; las vencidas se descartan al leerlas.
+ * - Opcionalmente agrupa las entradas por un dato del valor (ej: el id del paciente) para invalidarlas
+ *   juntas sin recorrer la caché: se lleva un índice inverso grupo -> claves.
+ *
+ * Solo guarda resultados encontrados: las búsquedas sin resultado siempre van al origen.
+ */
+public class CacheTtl<K, V> {
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    private record Entrada<V>(V valor, long expiraEn) {
+    }
+
+    // accessOrder = true: el recorrido va de la menos usada a la más usada
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    // Grupo de cada valor (null si la caché no agrupa) y claves guardadas de cada grupo
+    private final Function<V, ?> grupo;
+    private final Map<Object, Set<K>> clavesPorGrupo = new HashMap<>();
+    // Avanza con cada invalidación: un valor cargado antes de invalidar no se guarda
+    private long generacion;
+
+    public CacheTtl(int maxEntradas, Duration ttl) {
+        this(maxEntradas, ttl, null);
+    }
+
+    public CacheTtl(int maxEntradas, Duration ttl, Function<V, ?> grupo) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.grupo = grupo;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > CacheTtl.this.maxEntradas) {
+                    desindexar(mayor.getKey(), mayor.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retorna el valor en caché o lo carga con "cargador" (fuera del bloqueo) y lo guarda si existe.
+     */
+    public Optional<V> obtener(K clave, Function<K, Optional<V>> cargador) {
+        Optional<V> enCache = leer(clave);
+        if (enCache.isPresent()) {
+            aciertos.incrementAndGet();
+            return enCache;
+        }
+        fallos.incrementAndGet();
+        long generacionCarga = generacionActual();
+        Optional<V> cargado = cargador.apply(clave);
+        cargado.ifPresent(valor -> guardarSiVigente(clave, valor, generacionCarga));
+        return cargado;
+    }
+
+    public synchronized void guardar(K clave, V valor) {
+        Entrada<V> anterior = entradas.put(clave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        if (anterior != null) {
+            desindexar(clave, anterior);
+        }
+        Object grupoValor = grupoDe(valor);
+        if (grupoValor != null) {
+            clavesPorGrupo.computeIfAbsent(grupoValor, g -> new HashSet<>()).add(clave);
+        }
+    }
+
+    public synchronized void invalidar(K clave) {
+        generacion++;
+        quitar(clave);
+    }
+
+    /**
+     * Elimina todas las entradas del grupo (ej: las de un paciente modificado), sin recorrer el resto.
+     */
+    public synchronized void invalidarGrupo(Object grupoValor) {
+        generacion++;
+        Set<K> claves = clavesPorGrupo.remove(grupoValor);
+        if (claves != null) {
+            claves.forEach(entradas::remove);
+        }
+    }
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public long aciertos() {
+        return aciertos.get();
+    }
+
+    public long fallos() {
+        return fallos.get();
+    }
+
+    private synchronized long generacionActual() {
+        return generacion;
+    }
+
+    private synchronized void guardarSiVigente(K clave, V valor, long generacionCarga) {
+        if (generacion == generacionCarga) {
+            guardar(clave, valor);
+        }
+    }
+
+    private synchronized Optional<V> leer(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entrada.expiraEn() > 0) {
+            quitar(clave);
+            return Optional.empty();
+        }
+        return Optional.of(entrada.valor());
+    }
+
+    private void quitar(K clave) {
+        Entrada<V> entrada = entradas.remove(clave);
+        if (entrada != null) {
+            desindexar(clave, entrada);
+        }
+    }
+
+    private void desindexar(K clave, Entrada<V> entrada) {
+        Object grupoValor = grupoDe(entrada.valor());
+        if (grupoValor == null) {
+            return;
+        }
+        Set<K> claves = clavesPorGrupo.get(grupoValor);
+        if (claves != null && claves.remove(clave) && claves.isEmpty()) {
+            clavesPorGrupo.remove(grupoValor);
+        }
+    }
+
+    private Object grupoDe(V valor) {
+        return grupo != null ? grupo.apply(valor) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.hospital.utils;
+
+public class PaginacionUtils {
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 200;
+
+    /**
+     * Ajusta el tamaño de página pedido por el cliente al rango permitido [1, LIMITE_MAXIMO].
+     */
+    public static int normalizarLimite(Integer limit) {
+        if (limit == null || limit < 1) return LIMITE_POR_DEFECTO;
+        return Math.min(limit, LIMITE_MAXIMO);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.example.hospital.usecase.camilla;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaCambioEstado;
+import com.example.hospital.ports.out.CamillaRepositoryPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DisponibilidadCamillasIndexTest {
+
+    private final CamillaRepositoryPort repositorio = mock(CamillaRepositoryPort.class);
+    private final DisponibilidadCamillasIndex indice = new DisponibilidadCamillasIndex(repositorio);
+
+    private static Camilla camilla(String id, String estado, String habitacion) {
+        return new Camilla(id, estado, habitacion, null, null, null);
+    }
+
+    private static List<String> ids(List<Camilla> camillas) {
+        return camillas.stream().map(Camilla::getId).toList();
+    }
+
+    @Test
+    void seHidrataConLasDisponiblesDeMongo() {
+        when(repositorio.findAll()).thenReturn(List.of(
+                camilla("c1", "Disponible", "101"),
+                camilla("c2", "Ocupada", "101"),
+                camilla("c3", "Disponible", "102")));
+
+        assertThat(indice.conciliar()).isZero();
+
+        assertThat(indice.estaHidratado()).isTrue();
+        assertThat(indice.totalDisponibles()).isEqualTo(2);
+        assertThat(ids(indice.disponiblesEnHabitacion("101"))).containsExactly("c1");
+    }
+
+    @Test
+    void lasTransicionesActualizanLasDisponibles() {
+        when(repositorio.findAll()).thenReturn(List.of(camilla("c1", "Disponible", "101")));
+        indice.conciliar();
+
+        indice.marcarOcupada("c1", "2026-01-01");
+        assertThat(indice.disponibles()).isEmpty();
+
+        indice.marcarDisponible("c1", "2026-01-02");
+        assertThat(ids(indice.disponibles())).containsExactly("c1");
+    }
+
+    @Test
+    void laConciliacionCorrigeLosCambiosDeOtrosNodos() {
+        when(repositorio.findAll()).thenReturn(List.of(
+                camilla("c1", "Disponible", "101"),
+                camilla("c2", "Disponible", "101")));
+        indice.conciliar();
+
+        when(repositorio.findAll()).thenReturn(List.of(
+                camilla("c1", "Ocupada", "101"),
+                camilla("c3", "Disponible", "102")));
+
+        assertThat(indice.conciliar()).isEqualTo(3);
+        assertThat(ids(indice.disponibles())).containsExactly("c3");
+    }
+
+    @Test
+    void laConciliacionNoPisaUnaTransicionPosteriorASuLectura() {
+        when(repositorio.findAll()).thenReturn(List.of(camilla("c1", "Disponible", "101")));
+        indice.conciliar();
+
+        when(repositorio.findAll()).thenAnswer(invocacion -> {
+            List<Camilla> leidas = List.of(camilla("c1", "Disponible", "101"));
+            // La asignación termina mientras la conciliación lee Mongo
+            indice.marcarOcupada("c1", "2026-01-01");
+            return leidas;
+        });
+
+        assertThat(indice.conciliar()).isZero();
+        assertThat(indice.disponibles()).isEmpty();
+    }
+
+    @Test
+    void unaCamillaCreadaDuranteLaLecturaNoSeElimina() {
+        when(repositorio.findAll()).thenReturn(List.of());
+        indice.conciliar();
+
+        when(repositorio.findAll()).thenAnswer(invocacion -> {
+            indice.registrar(camilla("c1", "Disponible", "101"));
+            return List.of();
+        });
+
+        assertThat(indice.conciliar()).isZero();
+        assertThat(ids(indice.disponibles())).containsExactly("c1");
+    }
+
+    @Test
+    void unaTransicionDuranteLaHidratacionNoSePierde() {
+        when(repositorio.findAll()).thenAnswer(invocacion -> {
+            List<Camilla> leidas = List.of(camilla("c1", "Ocupada", "101"));
+            // Se libera en Mongo y se avisa al índice antes de que la hidratación cargue la camilla
+            indice.marcarDisponible("c1", "2026-01-02");
+            return leidas;
+        });
+        when(repositorio.findById("c1")).thenReturn(Optional.of(camilla("c1", "Disponible", "101")));
+
+        indice.conciliar();
+
+        assertThat(ids(indice.disponibles())).containsExactly("c1");
+    }
+
+    @Test
+    void unaCamillaEliminadaDuranteLaLecturaNoVuelve() {
+        when(repositorio.findAll()).thenReturn(List.of(camilla("c1", "Disponible", "101")));
+        indice.conciliar();
+
+        when(repositorio.findAll()).thenAnswer(invocacion -> {
+            List<Camilla> leidas = List.of(camilla("c1", "Disponible", "101"));
+            indice.eliminar("c1");
+            return leidas;
+        });
+        when(repositorio.findById("c1")).thenReturn(Optional.empty());
+
+        indice.conciliar();
+
+        assertThat(indice.disponibles()).isEmpty();
+    }
+
+    @Test
+    void avisaLosCambiosPeroNoLaHidratacion() {
+        List<CamillaCambioEstado> cambios = new ArrayList<>();
+        indice.agregarOyente(cambios::add);
+        when(repositorio.findAll()).thenReturn(List.of(camilla("c1", "Disponible", "101")));
+        indice.conciliar();
+        assertThat(cambios).isEmpty();
+
+        indice.marcarOcupada("c1", "2026-01-01");
+        indice.eliminar("c1");
+
+        assertThat(cambios).extracting(CamillaCambioEstado::estadoAnterior, CamillaCambioEstado::estado)
+                .containsExactly(
+                        tuple("Disponible", "Ocupada"),
+                        tuple("Ocupada", null));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.hospital.usecase.idempotencia;
+
+import com.example.hospital.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotenciaStoreTest {
+
+    private final AtomicInteger repeticiones = new AtomicInteger();
+
+    private IdempotenciaStore store(Duration ttl, int maxEntradas, Duration espera) {
+        return new IdempotenciaStore(ttl, maxEntradas, espera, repeticiones::incrementAndGet);
+    }
+
+    @Test
+    void repiteElResultadoSinEjecutarDeNuevo() {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 10, Duration.ofSeconds(1));
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        String primero = store.ejecutar("alta", "k1", "p1", () -> "r" + ejecuciones.incrementAndGet());
+        String repetido = store.ejecutar("alta", "k1", "p1", () -> "r" + ejecuciones.incrementAndGet());
+
+        assertThat(repetido).isEqualTo(primero).isEqualTo("r1");
+        assertThat(ejecuciones).hasValue(1);
+        assertThat(repeticiones).hasValue(1);
+    }
+
+    @Test
+    void separaLasClavesPorOperacion() {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 10, Duration.ofSeconds(1));
+
+        assertThat(store.ejecutar("alta", "k1", "p1", () -> "alta")).isEqualTo("alta");
+        assertThat(store.ejecutar("asignar", "k1", "p1", () -> "asignar")).isEqualTo("asignar");
+    }
+
+    @Test
+    void rechazaLaMismaClaveConOtraSolicitud() {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 10, Duration.ofSeconds(1));
+        store.ejecutar("alta", "k1", "p1", () -> "r1");
+
+        assertThatThrownBy(() -> store.ejecutar("alta", "k1", "p2", () -> "r2"))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getCode())
+                .isEqualTo("422");
+    }
+
+    @Test
+    void vuelveAEjecutarCuandoElResultadoExpira() throws InterruptedException {
+        IdempotenciaStore store = store(Duration.ofMillis(1), 10, Duration.ofSeconds(1));
+        store.ejecutar("alta", "k1", "p1", () -> "r1");
+        Thread.sleep(5);
+
+        assertThat(store.ejecutar("alta", "k1", "p1", () -> "r2")).isEqualTo("r2");
+        assertThat(repeticiones).hasValue(0);
+    }
+
+    @Test
+    void purgaLasExpiradas() throws InterruptedException {
+        IdempotenciaStore store = store(Duration.ofMillis(1), 10, Duration.ofSeconds(1));
+        store.ejecutar("alta", "k1", "p1", () -> "r1");
+        store.ejecutar("alta", "k2", "p1", () -> "r2");
+        Thread.sleep(5);
+
+        assertThat(store.purgarExpiradas()).isEqualTo(2);
+        assertThat(store.totalEntradas()).isZero();
+    }
+
+    @Test
+    void unFalloLiberaLaClave() {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 10, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> store.ejecutar("alta", "k1", "p1", () -> {
+            throw new IllegalStateException("mongo caído");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> store.ejecutar("alta", "k2", "p1", () -> {
+            throw new AssertionError("error");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(store.totalEntradas()).isZero();
+        assertThat(store.ejecutar("alta", "k1", "p1", () -> "r1")).isEqualTo("r1");
+    }
+
+    @Test
+    void elReintentoConLaOriginalEnCursoEsperaComoMaximoElPlazo() throws Exception {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 10, Duration.ofMillis(50));
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        CompletableFuture<String> original = CompletableFuture.supplyAsync(() ->
+                store.ejecutar("alta", "k1", "p1", () -> {
+                    enCurso.countDown();
+                    try {
+                        terminar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "r1";
+                }));
+        assertThat(enCurso.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> store.ejecutar("alta", "k1", "p1", () -> "r2"))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getCode())
+                .isEqualTo("409");
+
+        terminar.countDown();
+        assertThat(original.get(1, TimeUnit.SECONDS)).isEqualTo("r1");
+        assertThat(store.ejecutar("alta", "k1", "p1", () -> "r2")).isEqualTo("r1");
+    }
+
+    @Test
+    void rechazaClavesNuevasConElAlmacenLleno() {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 2, Duration.ofSeconds(1));
+        store.ejecutar("alta", "k1", "p1", () -> "r1");
+        store.ejecutar("alta", "k2", "p1", () -> "r2");
+
+        assertThatThrownBy(() -> store.ejecutar("alta", "k3", "p1", () -> "r3"))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getCode())
+                .isEqualTo("503");
+        // Las claves ya guardadas se siguen respondiendo
+        assertThat(store.ejecutar("alta", "k1", "p1", () -> "otro")).isEqualTo("r1");
+    }
+
+    @Test
+    void sinClaveEjecutaSiempre() {
+        IdempotenciaStore store = store(Duration.ofMinutes(1), 10, Duration.ofSeconds(1));
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        store.ejecutar("alta", null, "p1", ejecuciones::incrementAndGet);
+        store.ejecutar("alta", " ", "p1", ejecuciones::incrementAndGet);
+
+        assertThat(ejecuciones).hasValue(2);
+        assertThat(store.totalEntradas()).isZero();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.hospital.usecase.paciente;
+
+import com.example.hospital.model.Paciente;
+import com.example.hospital.ports.out.PacienteRepositoryPort;
+import com.example.hospital.utils.CacheTtl;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BusquedasPacientesTest {
+
+    private final PacienteRepositoryPort repositorio = mock(PacienteRepositoryPort.class);
+    private final BusquedasPacientes busquedas = new BusquedasPacientes(repositorio,
+            new CacheTtl<>(100, Duration.ofMinutes(1), Paciente::getId));
+
+    private static Paciente paciente(String estado) {
+        return new Paciente("p1", "María", null, "López", null, "CC1", null, "O+", "F", null,
+                estado, null, "H1", "EPS");
+    }
+
+    @Test
+    void cadaLecturaRecibeSuPropiaCopia() {
+        when(repositorio.findByDocumentoIdentidad("CC1")).thenReturn(Optional.of(paciente("Hospitalizado")));
+
+        Paciente primera = busquedas.porDocumento("CC1").orElseThrow();
+        primera.setEstado("modificado por quien llama");
+        Paciente segunda = busquedas.porDocumento("CC1").orElseThrow();
+
+        assertThat(segunda).isNotSameAs(primera);
+        assertThat(segunda.getEstado()).isEqualTo("Hospitalizado");
+        verify(repositorio, times(1)).findByDocumentoIdentidad("CC1");
+    }
+
+    @Test
+    void invalidarPorIdQuitaDocumentoEHistoria() {
+        when(repositorio.findByDocumentoIdentidad("CC1")).thenReturn(Optional.of(paciente("Hospitalizado")));
+        when(repositorio.findByNumeroHistoriaClinica("H1")).thenReturn(Optional.of(paciente("Hospitalizado")));
+        busquedas.porDocumento("CC1");
+        busquedas.porHistoriaClinica("H1");
+
+        // Un alta solo conoce el id del paciente
+        when(repositorio.findByDocumentoIdentidad("CC1")).thenReturn(Optional.of(paciente("Alta")));
+        when(repositorio.findByNumeroHistoriaClinica("H1")).thenReturn(Optional.of(paciente("Alta")));
+        busquedas.invalidar("p1");
+
+        assertThat(busquedas.porDocumento("CC1")).map(Paciente::getEstado).contains("Alta");
+        assertThat(busquedas.porHistoriaClinica("H1")).map(Paciente::getEstado).contains("Alta");
+    }
+}
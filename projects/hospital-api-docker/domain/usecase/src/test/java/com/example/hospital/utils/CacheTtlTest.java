@@ -0,0 +1,102 @@
+package com.example.hospital.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTtlTest {
+
+    private record Valor(String grupo, String dato) {
+    }
+
+    @Test
+    void cargaUnaVezYLuegoRespondeDesdeLaCache() {
+        CacheTtl<String, String> cache = new CacheTtl<>(10, Duration.ofMinutes(1));
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener("a", clave -> Optional.of("valor" + cargas.incrementAndGet()));
+        Optional<String> valor = cache.obtener("a", clave -> Optional.of("valor" + cargas.incrementAndGet()));
+
+        assertThat(valor).contains("valor1");
+        assertThat(cargas).hasValue(1);
+        assertThat(cache.aciertos()).isEqualTo(1);
+        assertThat(cache.fallos()).isEqualTo(1);
+    }
+
+    @Test
+    void noGuardaLasBusquedasSinResultado() {
+        CacheTtl<String, String> cache = new CacheTtl<>(10, Duration.ofMinutes(1));
+
+        cache.obtener("a", clave -> Optional.empty());
+
+        assertThat(cache.tamanio()).isZero();
+    }
+
+    @Test
+    void descartaLaMenosUsadaAlSuperarElMaximo() {
+        CacheTtl<String, String> cache = new CacheTtl<>(2, Duration.ofMinutes(1));
+        cache.guardar("a", "1");
+        cache.guardar("b", "2");
+        cache.obtener("a", clave -> Optional.empty());
+
+        cache.guardar("c", "3");
+
+        assertThat(cache.tamanio()).isEqualTo(2);
+        assertThat(cache.obtener("a", clave -> Optional.of("recargado"))).contains("1");
+        assertThat(cache.obtener("b", clave -> Optional.of("recargado"))).contains("recargado");
+    }
+
+    @Test
+    void lasEntradasVencidasSeVuelvenACargar() throws InterruptedException {
+        CacheTtl<String, String> cache = new CacheTtl<>(10, Duration.ofMillis(1));
+        cache.guardar("a", "viejo");
+        Thread.sleep(5);
+
+        assertThat(cache.obtener("a", clave -> Optional.of("nuevo"))).contains("nuevo");
+    }
+
+    @Test
+    void invalidaTodasLasEntradasDeUnGrupo() {
+        CacheTtl<String, Valor> cache = new CacheTtl<>(10, Duration.ofMinutes(1), Valor::grupo);
+        cache.guardar("documento:1", new Valor("p1", "x"));
+        cache.guardar("historia:9", new Valor("p1", "x"));
+        cache.guardar("documento:2", new Valor("p2", "y"));
+
+        cache.invalidarGrupo("p1");
+
+        assertThat(cache.tamanio()).isEqualTo(1);
+        assertThat(cache.obtener("documento:2", clave -> Optional.empty())).isPresent();
+    }
+
+    @Test
+    void elGrupoSigueAlValorActualDeCadaClave() {
+        CacheTtl<String, Valor> cache = new CacheTtl<>(1, Duration.ofMinutes(1), Valor::grupo);
+        cache.guardar("documento:1", new Valor("p1", "x"));
+        // Se reemplaza por otro paciente y luego se desaloja: p1 ya no debe tener claves
+        cache.guardar("documento:1", new Valor("p2", "y"));
+        cache.guardar("documento:3", new Valor("p3", "z"));
+
+        cache.invalidarGrupo("p1");
+        cache.invalidarGrupo("p2");
+
+        assertThat(cache.tamanio()).isEqualTo(1);
+        assertThat(cache.obtener("documento:3", clave -> Optional.empty())).contains(new Valor("p3", "z"));
+    }
+
+    @Test
+    void noGuardaLoCargadoAntesDeUnaInvalidacion() {
+        CacheTtl<String, Valor> cache = new CacheTtl<>(10, Duration.ofMinutes(1), Valor::grupo);
+
+        cache.obtener("documento:1", clave -> {
+            // Otra operación modifica al paciente mientras esta lo lee
+            cache.invalidarGrupo("p1");
+            return Optional.of(new Valor("p1", "desactualizado"));
+        });
+
+        assertThat(cache.tamanio()).isZero();
+    }
+}
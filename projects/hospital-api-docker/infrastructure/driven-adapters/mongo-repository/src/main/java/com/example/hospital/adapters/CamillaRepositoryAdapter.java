@@ -2,24 +2,51 @@ package com.example.hospital.adapters;
 
 
 import com.example.hospital.adapters.mapper.CamillaMongoMapper;
+import com.example.hospital.adapters.paging.KeysetPaginador;
 import com.example.hospital.adapters.repository.CamillaRepository;
 import com.example.hospital.adapters.document.CamillaDocument;
 
+import com.example.hospital.model.AsignacionCamillas;
 import com.example.hospital.model.Camilla;
+import com.example.hospital.model.CamillaLiberadaEvent;
+import com.example.hospital.model.Pagina;
+import com.example.hospital.model.Paciente;
 import com.example.hospital.ports.out.CamillaRepositoryPort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CamillaRepositoryAdapter implements CamillaRepositoryPort {
 
+    // Id de la última liberación masiva que modificó la camilla (solo lo usa releaseAll)
+    private static final String CAMPO_LIBERACION = "liberacionId";
+    // Id de la última asignación masiva que ocupó la camilla (solo lo usa asignarPacientesSiDisponibles)
+    private static final String CAMPO_ASIGNACION = "asignacionId";
+
     private final CamillaRepository repository;
     private final CamillaMongoMapper mapper;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${hospital.export.cursor-batch-size:1000}")
+    private int cursorBatchSize;
 
     @Override
     public List<Camilla> findAll() {
@@ -29,6 +56,40 @@ public class CamillaRepositoryAdapter implements CamillaRepositoryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Camilla> findAll(Collection<String> campos) {
+        if (campos == null) {
+            return findAll();
+        }
+        Query query = new Query();
+        query.fields().include("_id");
+        camposDocumento(campos).forEach(campo -> query.fields().include(campo));
+        return mongoTemplate.find(query, CamillaDocument.class)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Traduce los campos del dominio a los del documento: pacienteResumen es el subdocumento "paciente"
+     * y pacienteId su id (si ya se pide el resumen completo no se agrega, Mongo rechaza rutas solapadas).
+     */
+    private static Set<String> camposDocumento(Collection<String> campos) {
+        Set<String> documento = new LinkedHashSet<>();
+        for (String campo : campos) {
+            switch (campo) {
+                case "pacienteResumen" -> documento.add("paciente");
+                case "pacienteId" -> {
+                    if (!campos.contains("pacienteResumen")) {
+                        documento.add("paciente.id");
+                    }
+                }
+                default -> documento.add(campo);
+            }
+        }
+        return documento;
+    }
+
     @Override
     public List<Camilla> findByEstado(String estado) {
         return repository.findByEstado(estado)
@@ -37,6 +98,27 @@ public class CamillaRepositoryAdapter implements CamillaRepositoryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Pagina<Camilla> findPage(String after, int limit, String estado) {
+        return KeysetPaginador.buscarPagina(mongoTemplate, filtroPagina(estado), after, limit,
+                CamillaDocument.class, CamillaDocument::getId, mapper::toDomain);
+    }
+
+    public static Criteria filtroPagina(String estado) {
+        return estado != null ? Criteria.where("estado").is(estado) : null;
+    }
+
+    // Resuelta con el índice paciente_id
+    public static Query consultaPorPacientes(Collection<String> pacienteIds) {
+        return new Query(Criteria.where("paciente.id").in(pacienteIds));
+    }
+
+    @Override
+    public Stream<Camilla> streamAll() {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        return mongoTemplate.stream(query, CamillaDocument.class).map(mapper::toDomain);
+    }
+
     @Override
     public Optional<Camilla> findById(String id) {
         return repository.findById(id)
@@ -49,6 +131,17 @@ public class CamillaRepositoryAdapter implements CamillaRepositoryPort {
                 .map(mapper::toDomain);
     }
 
+    @Override
+    public List<Camilla> findByPacienteIds(Collection<String> pacienteIds) {
+        if (pacienteIds.isEmpty()) {
+            return List.of();
+        }
+        return mongoTemplate.find(consultaPorPacientes(pacienteIds), CamillaDocument.class)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Camilla save(Camilla camilla) {
         CamillaDocument doc = mapper.toDocument(camilla);
@@ -56,6 +149,120 @@ public class CamillaRepositoryAdapter implements CamillaRepositoryPort {
         return mapper.toDomain(saved);
     }
 
+    /**
+     * Un solo findAndModify: el filtro exige estado = "Disponible", así que dos asignaciones
+     * concurrentes sobre la misma camilla no pueden ganar ambas.
+     */
+    @Override
+    public Optional<Camilla> asignarPacienteSiDisponible(String idCamilla, Paciente paciente, String fechaInicio) {
+        Query query = new Query(Criteria.where("id").is(idCamilla)
+                .and("estado").is("Disponible"));
+        Update update = new Update()
+                .set("estado", "Ocupada")
+                .set("paciente", mapper.toResumenDocument(paciente))
+                .set("fechaInicio", fechaInicio);
+
+        CamillaDocument actualizada = mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), CamillaDocument.class);
+        return Optional.ofNullable(actualizada)
+                .map(mapper::toDomain);
+    }
+
+    /**
+     * Un solo findAndModify con el mismo filtro que releaseAll: no pisa una asignación o liberación
+     * que ocurrió después de que el caso de uso leyó la camilla.
+     */
+    @Override
+    public Optional<Camilla> liberarSiOcupadaPor(String idCamilla, String idPaciente, String fechaFin) {
+        Query query = new Query(Criteria.where("id").is(idCamilla)
+                .and("estado").is("Ocupada")
+                .and("paciente.id").is(idPaciente));
+        Update update = new Update()
+                .set("estado", "Disponible")
+                .unset("paciente")
+                .set("fechaFin", fechaFin);
+
+        CamillaDocument actualizada = mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), CamillaDocument.class);
+        return Optional.ofNullable(actualizada)
+                .map(mapper::toDomain);
+    }
+
+    /**
+     * Un bulkWrite sin orden con un update condicional por camilla, una lectura $in del estado final y,
+     * si algo se escribió, una lectura de solo ids de las camillas marcadas con el id de esta operación:
+     * el número de viajes a Mongo no depende del tamaño del lote.
+     */
+    @Override
+    public AsignacionCamillas asignarPacientesSiDisponibles(Map<String, Paciente> pacientePorCamilla, String fechaInicio) {
+        if (pacientePorCamilla.isEmpty()) {
+            return new AsignacionCamillas(List.of(), Set.of());
+        }
+        // Marca de esta escritura: dos lotes en el mismo instante escriben la misma fechaInicio, pero no el mismo id
+        String operacion = UUID.randomUUID().toString();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CamillaDocument.class);
+        pacientePorCamilla.forEach((idCamilla, paciente) -> bulk.updateOne(
+                new Query(Criteria.where("id").is(idCamilla).and("estado").is("Disponible")),
+                new Update()
+                        .set("estado", "Ocupada")
+                        .set("paciente", mapper.toResumenDocument(paciente))
+                        .set("fechaInicio", fechaInicio)
+                        .set(CAMPO_ASIGNACION, operacion)));
+        boolean escribio = bulk.execute().getModifiedCount() > 0;
+
+        List<Camilla> camillas = mongoTemplate.find(new Query(Criteria.where("id").in(pacientePorCamilla.keySet())), CamillaDocument.class)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+        if (!escribio) {
+            return new AsignacionCamillas(camillas, Set.of());
+        }
+
+        Query asignadas = new Query(Criteria.where("id").in(pacientePorCamilla.keySet())
+                .and(CAMPO_ASIGNACION).is(operacion)
+                .and("estado").is("Ocupada"));
+        asignadas.fields().include("_id");
+        Set<String> ids = mongoTemplate.find(asignadas, CamillaDocument.class).stream()
+                .map(CamillaDocument::getId)
+                .collect(Collectors.toSet());
+        return new AsignacionCamillas(camillas, ids);
+    }
+
+    @Override
+    public Set<String> releaseAll(Collection<CamillaLiberadaEvent> eventos) {
+        if (eventos.isEmpty()) {
+            return Set.of();
+        }
+        // Marca de esta escritura: permite saber después qué camillas liberó, sin depender de fechas
+        String operacion = UUID.randomUUID().toString();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CamillaDocument.class);
+        for (CamillaLiberadaEvent evento : eventos) {
+            // Solo si sigue ocupada por el paciente del evento: un evento repetido o tardío no libera
+            // una camilla que entretanto se asignó a otro paciente
+            bulk.updateOne(
+                    new Query(Criteria.where("id").is(evento.getCamillaId())
+                            .and("estado").is("Ocupada")
+                            .and("paciente.id").is(evento.getPacienteId())),
+                    new Update()
+                            .set("estado", "Disponible")
+                            .unset("paciente")
+                            .set("fechaFin", evento.getFechaLiberacion())
+                            .set(CAMPO_LIBERACION, operacion));
+        }
+        if (bulk.execute().getModifiedCount() == 0) {
+            return Set.of();
+        }
+
+        List<String> ids = eventos.stream().map(CamillaLiberadaEvent::getCamillaId).toList();
+        Query liberadas = new Query(Criteria.where("id").in(ids)
+                .and(CAMPO_LIBERACION).is(operacion)
+                .and("estado").is("Disponible"));
+        liberadas.fields().include("_id");
+        return mongoTemplate.find(liberadas, CamillaDocument.class).stream()
+                .map(CamillaDocument::getId)
+                .collect(Collectors.toSet());
+    }
+
     @Override
     public void deleteById(String id) {
         repository.deleteById(id);
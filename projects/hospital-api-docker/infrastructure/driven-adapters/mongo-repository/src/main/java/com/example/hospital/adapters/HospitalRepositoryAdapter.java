@@ -4,16 +4,23 @@ package com.example.hospital.adapters;
 
 import com.example.hospital.adapters.document.HospitalDocument;
 import com.example.hospital.adapters.mapper.HospitalMongoMapper;
+import com.example.hospital.adapters.paging.KeysetPaginador;
 import com.example.hospital.adapters.repository.HospitalRepository;
 
 import com.example.hospital.model.Hospital;
+import com.example.hospital.model.Pagina;
 import com.example.hospital.ports.out.HospitalRepositoryPort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 🧩 Adaptador que implementa el puerto de dominio usando MongoRepository.
@@ -24,6 +31,10 @@ public class HospitalRepositoryAdapter implements HospitalRepositoryPort {
 
     private final HospitalRepository repository;
     private final HospitalMongoMapper mapper;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${hospital.export.cursor-batch-size:1000}")
+    private int cursorBatchSize;
 
 
     @Override
@@ -42,6 +53,22 @@ public class HospitalRepositoryAdapter implements HospitalRepositoryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Pagina<Hospital> findPage(String after, int limit, String city) {
+        return KeysetPaginador.buscarPagina(mongoTemplate, filtroPagina(city), after, limit,
+                HospitalDocument.class, HospitalDocument::getId, mapper::toDomain);
+    }
+
+    public static Criteria filtroPagina(String city) {
+        return city != null ? Criteria.where("city").is(city) : null;
+    }
+
+    @Override
+    public Stream<Hospital> streamAll() {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        return mongoTemplate.stream(query, HospitalDocument.class).map(mapper::toDomain);
+    }
+
     @Override
     public Optional<Hospital> findById(String id) {
         return repository.findById(id)
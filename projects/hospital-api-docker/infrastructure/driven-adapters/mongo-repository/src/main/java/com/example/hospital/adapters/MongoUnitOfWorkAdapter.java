@@ -0,0 +1,40 @@
+package com.example.hospital.adapters;
+
+import com.example.hospital.ports.out.UnitOfWorkPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * 🧩 Unidad de trabajo sobre transacciones multi-documento de MongoDB.
+ * Las transacciones requieren un replica set (Atlas lo es); para un Mongo local standalone
+ * se pueden desactivar con hospital.mongo.transactions.enabled=false.
+ */
+@Slf4j
+@Service
+public class MongoUnitOfWorkAdapter implements UnitOfWorkPort {
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean transaccionesHabilitadas;
+
+    public MongoUnitOfWorkAdapter(MongoTransactionManager transactionManager,
+                                  @Value("${hospital.mongo.transactions.enabled:true}") boolean transaccionesHabilitadas) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transaccionesHabilitadas = transaccionesHabilitadas;
+        if (!transaccionesHabilitadas) {
+            log.warn("⚠️ Transacciones Mongo deshabilitadas: las escrituras de una unidad de trabajo no serán atómicas.");
+        }
+    }
+
+    @Override
+    public <T> T executeInTransaction(Supplier<T> work) {
+        if (!transaccionesHabilitadas) {
+            return work.get();
+        }
+        return transactionTemplate.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.hospital.adapters;
+
+
+import com.example.hospital.adapters.document.OutboxEventDocument;
+import com.example.hospital.adapters.mapper.OutboxMongoMapper;
+import com.example.hospital.adapters.repository.OutboxEventRepository;
+
+import com.example.hospital.model.OutboxEvent;
+import com.example.hospital.ports.out.OutboxRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 🧩 Adaptador de la colección outbox_eventos.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxRepositoryAdapter implements OutboxRepositoryPort {
+
+    private final OutboxEventRepository repository;
+    private final OutboxMongoMapper mapper;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public OutboxEvent save(OutboxEvent event) {
+        OutboxEventDocument saved = repository.save(nuevo(event));
+        return mapper.toDomain(saved);
+    }
+
+    @Override
+    public void saveAll(Collection<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        mongoTemplate.insertAll(events.stream().map(this::nuevo).collect(Collectors.toList()));
+    }
+
+    private OutboxEventDocument nuevo(OutboxEvent event) {
+        OutboxEventDocument doc = mapper.toDocument(event);
+        doc.setDisponibleEn(doc.getCreadoEn());
+        return doc;
+    }
+
+    /**
+     * Tres viajes a Mongo sin importar el tamaño del lote: lee los ids candidatos, los marca con un
+     * reclamo nuevo en un updateMany que vuelve a exigir que sigan disponibles (así cada evento queda
+     * en un solo reclamo aunque otro relay lea los mismos candidatos) y trae los que quedaron con este reclamo.
+     */
+    @Override
+    public List<OutboxEvent> reclamarPendientes(int limite, Duration lease) {
+        Instant ahora = Instant.now();
+        Query candidatos = consultaDisponibles(ahora, limite);
+        candidatos.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidatos, OutboxEventDocument.class)
+                .stream()
+                .map(OutboxEventDocument::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String reclamo = UUID.randomUUID().toString();
+        Criteria disponibles = new Criteria().andOperator(Criteria.where("id").in(ids), criterioDisponibles(ahora));
+        long reclamados = mongoTemplate.updateMulti(new Query(disponibles),
+                new Update().set("reclamo", reclamo).set("disponibleEn", ahora.plus(lease)),
+                OutboxEventDocument.class).getModifiedCount();
+        if (reclamados == 0) {
+            return List.of();
+        }
+
+        return mongoTemplate.find(new Query(Criteria.where("id").in(ids).and("reclamo").is(reclamo)), OutboxEventDocument.class)
+                .stream()
+                .sorted(Comparator.comparing(OutboxEventDocument::getCreadoEn, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    // Los eventos anteriores al campo disponibleEn no lo tienen: $not $gt también los incluye
+    private static Criteria criterioDisponibles(Instant ahora) {
+        return Criteria.where("estado").is(OutboxEventDocument.PENDIENTE).and("disponibleEn").not().gt(ahora);
+    }
+
+    // Resuelta con el índice estado_disponibleEn; MongoIndexInitializer verifica su plan
+    public static Query consultaDisponibles(Instant ahora, int limite) {
+        return new Query(criterioDisponibles(ahora))
+                .with(Sort.by("disponibleEn"))
+                .limit(limite);
+    }
+
+    @Override
+    public void marcarPublicados(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("id").in(ids)),
+                new Update()
+                        .set("estado", OutboxEventDocument.PUBLICADO)
+                        .set("publicadoEn", Instant.now())
+                        .unset("reclamo"),
+                OutboxEventDocument.class);
+    }
+
+    /**
+     * Un solo bulk con una actualización por evento (cada uno tiene su propia espera).
+     * El filtro por estado evita devolver a PENDIENTE un evento que otro relay ya publicó
+     * después de vencer el lease de este.
+     */
+    @Override
+    public void reprogramar(Map<String, Instant> proximoIntento) {
+        if (proximoIntento.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEventDocument.class);
+        proximoIntento.forEach((id, cuando) -> bulk.updateOne(
+                new Query(Criteria.where("id").is(id).and("estado").is(OutboxEventDocument.PENDIENTE)),
+                new Update().inc("intentos", 1).set("disponibleEn", cuando).unset("reclamo")));
+        bulk.execute();
+    }
+
+    @Override
+    public void marcarFallidos(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("id").in(ids).and("estado").is(OutboxEventDocument.PENDIENTE)),
+                new Update().inc("intentos", 1).set("estado", OutboxEventDocument.FALLIDO).unset("reclamo"),
+                OutboxEventDocument.class);
+    }
+
+    @Override
+    public long contarPendientes() {
+        return repository.countByEstado(OutboxEventDocument.PENDIENTE);
+    }
+
+    @Override
+    public Optional<Instant> fechaPendienteMasAntiguo() {
+        return repository.findFirstByEstadoOrderByCreadoEnAsc(OutboxEventDocument.PENDIENTE)
+                .map(OutboxEventDocument::getCreadoEn);
+    }
+}
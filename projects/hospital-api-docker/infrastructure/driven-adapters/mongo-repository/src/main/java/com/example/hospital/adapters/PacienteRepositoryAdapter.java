@@ -1,18 +1,41 @@
 package com.example.hospital.adapters;
 
 
+import com.example.hospital.adapters.busqueda.NombreTokens;
+import com.example.hospital.adapters.document.CamillaDocument;
 import com.example.hospital.adapters.document.PacienteDocument;
+import com.example.hospital.adapters.document.PacienteResumenDocument;
 import com.example.hospital.adapters.mapper.PacienteMongoMapper;
+import com.example.hospital.adapters.paging.KeysetPaginador;
 import com.example.hospital.adapters.repository.PacienteRepository;
 
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.model.Pagina;
 import com.example.hospital.model.Paciente;
+import com.example.hospital.model.PacienteFiltro;
 import com.example.hospital.ports.out.PacienteRepositoryPort;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 🧩 Adaptador que implementa el puerto de dominio usando MongoRepository.
@@ -21,8 +44,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PacienteRepositoryAdapter implements PacienteRepositoryPort {
 
+    // Campos de los que salen los tokens de la búsqueda por nombre
+    private static final Set<String> CAMPOS_NOMBRE =
+            Set.of("primerNombre", "segundoNombre", "primerApellido", "segundoApellido");
+    // Candidatos que se traen de Mongo para ordenar por relevancia
+    private static final int MAX_CANDIDATOS = 500;
+    // Id de la última alta en lote que cambió al paciente
+    private static final String CAMPO_ALTA = "altaId";
+
     private final PacienteRepository pacienteRepository;
     private final PacienteMongoMapper mapper;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${hospital.export.cursor-batch-size:1000}")
+    private int cursorBatchSize;
 
     @Override
     public List<Paciente> findAll() {
@@ -32,17 +67,320 @@ public class PacienteRepositoryAdapter implements PacienteRepositoryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Paciente> findAll(Collection<String> campos) {
+        if (campos == null) {
+            return findAll();
+        }
+        Query query = new Query();
+        query.fields().include("_id");
+        campos.forEach(campo -> query.fields().include(campo));
+        return mongoTemplate.find(query, PacienteDocument.class)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Optional<Paciente> findById(String id) {
         return pacienteRepository.findById(id)
                 .map(mapper::toDomain);
     }
 
+    @Override
+    public Pagina<Paciente> findPage(String after, int limit, String estado) {
+        return KeysetPaginador.buscarPagina(mongoTemplate, criterio(new PacienteFiltro(estado, null, null, null, null)),
+                after, limit, PacienteDocument.class, PacienteDocument::getId, mapper::toDomain);
+    }
+
+    /**
+     * El filtro se resuelve en Mongo con los índices estado_id, estado_eps_id, eps_id, tipoSangre_id y
+     * estado_id_fechaAlta, todos terminados (o seguidos) por _id para no ordenar en memoria,
+     * y con "campos" solo viajan los campos pedidos en vez del documento completo.
+     */
+    @Override
+    public Pagina<Paciente> findPage(PacienteFiltro filtro, String after, int limit, Collection<String> campos) {
+        return KeysetPaginador.buscarPagina(mongoTemplate, criterio(filtro), after, limit, campos,
+                PacienteDocument.class, PacienteDocument::getId, mapper::toDomain);
+    }
+
+    public static Criteria criterio(PacienteFiltro filtro) {
+        List<Criteria> condiciones = new ArrayList<>();
+        if (filtro.estado() != null) {
+            condiciones.add(Criteria.where("estado").is(filtro.estado()));
+        }
+        if (filtro.eps() != null) {
+            condiciones.add(Criteria.where("eps").is(filtro.eps()));
+        }
+        if (filtro.tipoSangre() != null) {
+            condiciones.add(Criteria.where("tipoSangre").is(filtro.tipoSangre()));
+        }
+        // fechaAlta se guarda como texto ISO (2024-10-04T16:45:00): el orden alfabético es el cronológico.
+        // altaHasta incluye todo el día, por eso el límite es "< día siguiente".
+        if (filtro.altaDesde() != null || filtro.altaHasta() != null) {
+            Criteria rango = Criteria.where("fechaAlta");
+            if (filtro.altaDesde() != null) {
+                rango.gte(filtro.altaDesde());
+            }
+            if (filtro.altaHasta() != null) {
+                rango.lt(LocalDate.parse(filtro.altaHasta()).plusDays(1).toString());
+            }
+            condiciones.add(rango);
+        }
+        return condiciones.isEmpty() ? null : new Criteria().andOperator(condiciones);
+    }
+
+    @Override
+    public Stream<Paciente> streamAll() {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        return mongoTemplate.stream(query, PacienteDocument.class).map(mapper::toDomain);
+    }
+
+    @Override
+    public Optional<Paciente> findByDocumentoIdentidad(String documentoIdentidad) {
+        return pacienteRepository.findByDocumentoIdentidad(documentoIdentidad)
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Optional<Paciente> findByNumeroHistoriaClinica(String numeroHistoriaClinica) {
+        return pacienteRepository.findByNumeroHistoriaClinica(numeroHistoriaClinica)
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public List<Paciente> findAllById(Collection<String> ids) {
+        return pacienteRepository.findAllById(ids)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * El reemplazo es condicional a la versión leída: findAndReplace filtra por _id y versión y guarda
+     * la versión siguiente. Si otra escritura avanzó la versión entre la lectura y este save, no hay
+     * coincidencia y se responde 409 en vez de pisar sus cambios.
+     * findAndReplace devuelve el documento anterior: la camilla solo se toca si cambió el resumen.
+     */
     @Override
     public Paciente save(Paciente paciente) {
         PacienteDocument doc = mapper.toDocument(paciente);
-        PacienteDocument saved = pacienteRepository.save(doc);
-        return mapper.toDomain(saved);
+        Long versionLeida = doc.getVersion();
+        doc.setVersion(versionLeida == null ? 1L : versionLeida + 1);
+        doc.setNombreTokens(NombreTokens.de(doc));
+        PacienteDocument anterior;
+        try {
+            // Un paciente nuevo no ocupa ninguna camilla: no hay resumen que sincronizar
+            anterior = doc.getId() == null ? null : reemplazar(doc, versionLeida);
+            if (doc.getId() == null) {
+                mongoTemplate.insert(doc);
+            }
+        } catch (DuplicateKeyException e) {
+            throw duplicado();
+        }
+        if (anterior != null && cambiaResumen(anterior, doc)) {
+            sincronizarCamillas(doc);
+        }
+        return mapper.toDomain(doc);
+    }
+
+    /**
+     * Retorna el documento reemplazado, o null si era un alta con id asignado por el cliente.
+     */
+    private PacienteDocument reemplazar(PacienteDocument doc, Long versionLeida) {
+        Criteria criterio = Criteria.where("_id").is(doc.getId());
+        // Los documentos anteriores al campo version cuentan como versión 0
+        criterio = versionLeida == null || versionLeida == 0
+                ? criterio.and("version").in(Arrays.asList(0L, null))
+                : criterio.and("version").is(versionLeida);
+        PacienteDocument reemplazado = mongoTemplate.findAndReplace(new Query(criterio), doc);
+        if (reemplazado != null) {
+            return reemplazado;
+        }
+        // Sin versión y sin documento previo es un alta con id asignado por el cliente
+        if (versionLeida == null && !mongoTemplate.exists(new Query(Criteria.where("_id").is(doc.getId())), PacienteDocument.class)) {
+            mongoTemplate.insert(doc);
+            return null;
+        }
+        throw new BusinessException(
+                "CONFLICT",
+                "El paciente " + doc.getId() + " fue modificado por otra operación (versión leída: "
+                        + (versionLeida == null ? 0 : versionLeida) + ")",
+                "409"
+        );
+    }
+
+    /**
+     * Un solo viaje a Mongo: findAndModify con $set de los campos informados y $inc de la versión.
+     * Devuelve el documento anterior y el actualizado se arma aplicándole el mismo cambio en memoria:
+     * así se sabe si el resumen cambió y solo entonces se actualiza además la camilla que ocupa el paciente
+     * (un alta que repite el estado o un cambio de alergias no escriben en camillas).
+     */
+    @Override
+    public Optional<Paciente> patch(String id, Paciente cambios, Long versionEsperada) {
+        // El converter omite los campos nulos: solo quedan los que hay que cambiar, con sus nombres en Mongo
+        Document campos = new Document();
+        mongoTemplate.getConverter().write(mapper.toDocument(cambios), campos);
+        campos.remove("_id");
+        campos.remove("_class");
+        campos.remove("version");
+
+        Criteria criterio = Criteria.where("_id").is(id);
+        if (versionEsperada != null) {
+            criterio = versionEsperada == 0
+                    ? criterio.and("version").in(Arrays.asList(0L, null))
+                    : criterio.and("version").is(versionEsperada);
+        }
+        Query query = new Query(criterio);
+
+        if (campos.isEmpty()) {
+            return Optional.ofNullable(mongoTemplate.findOne(query, PacienteDocument.class)).map(mapper::toDomain);
+        }
+
+        Update update = new Update().inc("version", 1);
+        campos.forEach(update::set);
+        // Con el nombre completo en el cambio los tokens se conocen antes y van en el mismo $set
+        boolean cambiaNombre = campos.keySet().stream().anyMatch(CAMPOS_NOMBRE::contains);
+        boolean nombreCompleto = campos.keySet().containsAll(CAMPOS_NOMBRE);
+        if (nombreCompleto) {
+            update.set("nombreTokens", NombreTokens.de(mapper.toDocument(cambios)));
+        }
+        PacienteDocument anterior;
+        try {
+            anterior = mongoTemplate.findAndModify(query, update, PacienteDocument.class);
+        } catch (DuplicateKeyException e) {
+            throw duplicado();
+        }
+        if (anterior == null) {
+            return Optional.empty();
+        }
+        PacienteDocument actualizado = aplicar(anterior, update);
+        if (cambiaNombre && !nombreCompleto) {
+            // Con parte del nombre, el completo solo se conoce después de aplicar el cambio. La segunda
+            // escritura exige que el nombre siga siendo del que salieron los tokens: si otra operación
+            // lo cambió entretanto, ella ya guardó los suyos y estos no deben pisarlos.
+            actualizado.setNombreTokens(NombreTokens.de(actualizado));
+            Criteria mismoNombre = Criteria.where("_id").is(id)
+                    .and("primerNombre").is(actualizado.getPrimerNombre())
+                    .and("segundoNombre").is(actualizado.getSegundoNombre())
+                    .and("primerApellido").is(actualizado.getPrimerApellido())
+                    .and("segundoApellido").is(actualizado.getSegundoApellido());
+            mongoTemplate.updateFirst(new Query(mismoNombre),
+                    new Update().set("nombreTokens", actualizado.getNombreTokens()), PacienteDocument.class);
+        }
+        if (cambiaResumen(anterior, actualizado)) {
+            sincronizarCamillas(actualizado);
+        }
+        return Optional.of(mapper.toDomain(actualizado));
+    }
+
+    // El documento tal como quedó en Mongo: el anterior con los $set del cambio y la versión incrementada
+    private PacienteDocument aplicar(PacienteDocument anterior, Update update) {
+        Document bson = new Document();
+        mongoTemplate.getConverter().write(anterior, bson);
+        bson.putAll(update.getUpdateObject().get("$set", Document.class));
+        bson.put("version", (anterior.getVersion() == null ? 0L : anterior.getVersion()) + 1);
+        return mongoTemplate.getConverter().read(PacienteDocument.class, bson);
+    }
+
+    /**
+     * Búsqueda por nombre sobre el índice multikey nombreTokens, sin tildes ni mayúsculas.
+     * Primero se traen los pacientes que tienen todos los términos como token completo y, si faltan,
+     * los que los tienen como prefijo (^termino usa el índice). Los candidatos se ordenan por relevancia.
+     */
+    @Override
+    public List<Paciente> buscarPorNombre(String texto, int limit) {
+        List<String> terminos = NombreTokens.terminos(texto);
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        int maxCandidatos = Math.min(limit * 5, MAX_CANDIDATOS);
+
+        List<PacienteDocument> candidatos = new ArrayList<>(mongoTemplate.find(
+                consultaTokensCompletos(terminos, maxCandidatos), PacienteDocument.class));
+
+        if (candidatos.size() < maxCandidatos) {
+            List<String> encontrados = candidatos.stream().map(PacienteDocument::getId).toList();
+            candidatos.addAll(mongoTemplate.find(
+                    consultaPrefijos(terminos, encontrados, maxCandidatos - candidatos.size()), PacienteDocument.class));
+        }
+
+        return NombreTokens.ordenarPorRelevancia(candidatos, terminos).stream()
+                .limit(limit)
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    public static Query consultaTokensCompletos(List<String> terminos, int limit) {
+        return new Query(Criteria.where("nombreTokens").all(terminos)).limit(limit);
+    }
+
+    // Pacientes con todos los términos como prefijo de algún token, sin los ya encontrados
+    public static Query consultaPrefijos(List<String> terminos, Collection<String> excluidos, int limit) {
+        List<Criteria> condiciones = new ArrayList<>();
+        terminos.forEach(termino -> condiciones.add(Criteria.where("nombreTokens").regex("^" + termino)));
+        if (!excluidos.isEmpty()) {
+            condiciones.add(Criteria.where("_id").nin(excluidos));
+        }
+        return new Query(new Criteria().andOperator(condiciones)).limit(limit);
+    }
+
+    // Violación de los índices únicos de documentoIdentidad / numeroHistoriaClinica
+    private BusinessException duplicado() {
+        return new BusinessException(
+                "CONFLICT",
+                "Ya existe otro paciente con el mismo documento de identidad o número de historia clínica",
+                "409"
+        );
+    }
+
+    private static boolean cambiaResumen(PacienteDocument anterior, PacienteDocument actual) {
+        return !Objects.equals(anterior.getPrimerNombre(), actual.getPrimerNombre())
+                || !Objects.equals(anterior.getPrimerApellido(), actual.getPrimerApellido())
+                || !Objects.equals(anterior.getDocumentoIdentidad(), actual.getDocumentoIdentidad())
+                || !Objects.equals(anterior.getEstado(), actual.getEstado());
+    }
+
+    /**
+     * Actualiza el resumen del paciente embebido en la camilla que ocupa (consulta por el índice paciente_id).
+     */
+    private void sincronizarCamillas(PacienteDocument paciente) {
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("paciente.id").is(paciente.getId())),
+                new Update().set("paciente", PacienteResumenDocument.desde(paciente)),
+                CamillaDocument.class);
+    }
+
+    /**
+     * Un solo updateMany: el filtro por estado evita dar de alta dos veces a un paciente
+     * que otra operación ya dio de alta después de la lectura. Cada llamada marca sus cambios con un id
+     * de operación propio; solo si alguno no cambió se consulta cuáles quedaron con ese id
+     * (la fecha de alta no sirve: dos operaciones pueden coincidir en ella).
+     */
+    @Override
+    public Set<String> darAltaAll(Collection<String> ids, String fechaAlta) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String operacion = UUID.randomUUID().toString();
+        Query query = new Query(Criteria.where("_id").in(ids).and("estado").is("Hospitalizado"));
+        Update update = new Update()
+                .set("estado", "Alta")
+                .set("fechaAlta", fechaAlta)
+                .set(CAMPO_ALTA, operacion)
+                .inc("version", 1);
+        long modificados = mongoTemplate.updateMulti(query, update, PacienteDocument.class).getModifiedCount();
+        Set<String> solicitados = new HashSet<>(ids);
+        if (modificados == solicitados.size()) {
+            return solicitados;
+        }
+
+        Query deEstaAlta = new Query(Criteria.where("_id").in(ids).and(CAMPO_ALTA).is(operacion));
+        deEstaAlta.fields().include("_id");
+        return mongoTemplate.find(deEstaAlta, PacienteDocument.class)
+                .stream()
+                .map(PacienteDocument::getId)
+                .collect(Collectors.toSet());
     }
 
     @Override
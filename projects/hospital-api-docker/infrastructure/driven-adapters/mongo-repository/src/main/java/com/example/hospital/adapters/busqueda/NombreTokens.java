@@ -0,0 +1,127 @@
+package com.example.hospital.adapters.busqueda;
+
+import com.example.hospital.adapters.document.PacienteDocument;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 🔤 Tokens normalizados del nombre del paciente para la búsqueda por nombre.
+ *
+ * "María José" -> ["maria", "jose"]: minúsculas, sin tildes ni diéresis y partido por cualquier
+ * carácter que no sea letra o dígito. Se guardan en PacienteDocument.nombreTokens (índice multikey)
+ * y la búsqueda compara cada término contra el prefijo de un token: "mar lop" encuentra "María López".
+ */
+public final class NombreTokens {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private NombreTokens() {
+    }
+
+    /**
+     * Tokens únicos de los cuatro campos del nombre, en orden.
+     */
+    public static List<String> de(PacienteDocument paciente) {
+        return tokens(paciente.getPrimerNombre(), paciente.getSegundoNombre(),
+                paciente.getPrimerApellido(), paciente.getSegundoApellido());
+    }
+
+    /**
+     * Normaliza y parte los textos; los tokens repetidos se guardan una sola vez.
+     */
+    public static List<String> tokens(String... textos) {
+        Set<String> resultado = new LinkedHashSet<>();
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            for (String token : SEPARADORES.split(normalizar(texto))) {
+                if (!token.isEmpty()) {
+                    resultado.add(token);
+                }
+            }
+        }
+        return new ArrayList<>(resultado);
+    }
+
+    static String normalizar(String texto) {
+        String sinMarcas = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ordena los candidatos por relevancia para los términos buscados:
+     * 1. más términos que coinciden con un token completo ("maria" antes que "mariana"),
+     * 2. coincidencias en el mismo orden que el nombre ("maria lopez" antes que "lopez maria"),
+     * 3. nombre más corto (menos tokens sobrantes),
+     * 4. tokens alfabéticos, para un orden estable.
+     * La puntuación se calcula una vez por candidato, no en cada comparación.
+     */
+    public static List<PacienteDocument> ordenarPorRelevancia(List<PacienteDocument> candidatos, List<String> terminos) {
+        List<Puntuado> puntuados = new ArrayList<>(candidatos.size());
+        for (PacienteDocument candidato : candidatos) {
+            List<String> tokens = tokensGuardados(candidato);
+            puntuados.add(new Puntuado(candidato, coincidenciasExactas(tokens, terminos),
+                    enOrden(tokens, terminos), tokens.size(), String.join(" ", tokens)));
+        }
+        puntuados.sort(Comparator.comparingInt((Puntuado p) -> -p.exactas())
+                .thenComparing(p -> !p.enOrden())
+                .thenComparingInt(Puntuado::totalTokens)
+                .thenComparing(Puntuado::clave));
+
+        List<PacienteDocument> ordenados = new ArrayList<>(puntuados.size());
+        puntuados.forEach(p -> ordenados.add(p.paciente()));
+        return ordenados;
+    }
+
+    private record Puntuado(PacienteDocument paciente, int exactas, boolean enOrden, int totalTokens, String clave) {
+    }
+
+    private static List<String> tokensGuardados(PacienteDocument paciente) {
+        return paciente.getNombreTokens() != null ? paciente.getNombreTokens() : de(paciente);
+    }
+
+    private static int coincidenciasExactas(List<String> tokens, List<String> terminos) {
+        int exactas = 0;
+        for (String termino : terminos) {
+            if (tokens.contains(termino)) {
+                exactas++;
+            }
+        }
+        return exactas;
+    }
+
+    // Cada término coincide (por prefijo) con un token posterior al del término anterior
+    private static boolean enOrden(List<String> tokens, List<String> terminos) {
+        int desde = 0;
+        for (String termino : terminos) {
+            int encontrado = -1;
+            for (int i = desde; i < tokens.size(); i++) {
+                if (tokens.get(i).startsWith(termino)) {
+                    encontrado = i;
+                    break;
+                }
+            }
+            if (encontrado < 0) {
+                return false;
+            }
+            desde = encontrado + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Términos de una búsqueda, normalizados igual que los tokens guardados.
+     */
+    public static List<String> terminos(String busqueda) {
+        return busqueda == null ? List.of() : tokens(busqueda);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.hospital.adapters.config;
+
+import com.example.hospital.adapters.CamillaRepositoryAdapter;
+import com.example.hospital.adapters.HospitalRepositoryAdapter;
+import com.example.hospital.adapters.OutboxRepositoryAdapter;
+import com.example.hospital.adapters.PacienteRepositoryAdapter;
+import com.example.hospital.adapters.document.CamillaDocument;
+import com.example.hospital.adapters.document.HospitalDocument;
+import com.example.hospital.adapters.document.OutboxEventDocument;
+import com.example.hospital.adapters.document.PacienteDocument;
+import com.example.hospital.adapters.paging.KeysetPaginador;
+import com.example.hospital.model.PacienteFiltro;
+import com.mongodb.MongoTimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🗂️ Crea al arrancar los índices declarados en los documentos (@Indexed / @CompoundIndex)
+ * y verifica con explain que cada consulta de los repositorios use un índice.
+ *
+ * hospital.mongo.indexes.verificacion:
+ *  - report (por defecto): registra en el log las consultas que recorren la colección completa (COLLSCAN),
+ *    las que ordenan en memoria (SORT) y las que no se pudieron verificar.
+ *  - fail: además detiene el arranque en cualquiera de esos casos, también si Mongo no responde.
+ *  - off: no verifica.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    private static final List<Class<?>> DOCUMENTOS = List.of(
+            CamillaDocument.class, PacienteDocument.class, HospitalDocument.class, OutboxEventDocument.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${hospital.mongo.indexes.ensure:true}")
+    private boolean crearIndices;
+
+    @Value("${hospital.mongo.indexes.verificacion:report}")
+    private String verificacion;
+
+    private record ConsultaVerificada(String nombre, Class<?> documento, Query query) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            if (crearIndices) {
+                crearIndices();
+            }
+        } catch (Exception e) {
+            log.error("❌ No se pudieron crear los índices de Mongo: {}", e.getMessage());
+            if (falla()) {
+                throw new IllegalStateException("No se pudieron crear los índices de Mongo", e);
+            }
+            return;
+        }
+
+        if ("off".equalsIgnoreCase(verificacion)) {
+            return;
+        }
+        List<String> conProblemas = verificarConsultas();
+        if (!conProblemas.isEmpty() && falla()) {
+            throw new IllegalStateException("Consultas sin índice adecuado: " + conProblemas);
+        }
+    }
+
+    private void crearIndices() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> documento : DOCUMENTOS) {
+            MongoPersistentEntity<?> entidad = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(documento);
+            IndexOperations indexOps = mongoTemplate.indexOps(documento);
+            resolver.resolveIndexForEntity(entidad).forEach(indice -> {
+                try {
+                    String nombre = indexOps.createIndex(indice.getIndexDefinition());
+                    log.info("🗂️ Índice asegurado {}.{}", entidad.getCollection(), nombre);
+                } catch (DataAccessResourceFailureException e) {
+                    // Mongo no responde: no tiene sentido seguir intentando índice por índice
+                    throw e;
+                } catch (Exception e) {
+                    // Ej: ya existe un índice con las mismas claves y otras opciones (como el de documentoIdentidad
+                    // creado antes sin unique): hay que eliminarlo a mano para que se cree el nuevo
+                    log.warn("⚠️ No se pudo crear el índice {} en {}: {}",
+                            indice.getIndexKeys().toJson(), entidad.getCollection(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Las consultas de los adaptadores, armadas con sus mismos métodos y con valores de ejemplo.
+     * Las de los repositorios derivados (findByX) se escriben aquí porque las genera Spring Data:
+     * todas son igualdad sobre un campo.
+     */
+    private List<ConsultaVerificada> consultas() {
+        String id = new ObjectId().toHexString();
+        String cursor = KeysetPaginador.codificar(id);
+        int limite = 20;
+        List<String> terminos = List.of("maria", "lop");
+
+        List<ConsultaVerificada> consultas = new ArrayList<>(List.of(
+                new ConsultaVerificada("CamillaRepository.findByEstado", CamillaDocument.class,
+                        new Query(Criteria.where("estado").is("Disponible"))),
+                new ConsultaVerificada("CamillaRepository.findByPaciente_Id", CamillaDocument.class,
+                        new Query(Criteria.where("paciente.id").is(id))),
+                new ConsultaVerificada("CamillaRepositoryAdapter.findByPacienteIds", CamillaDocument.class,
+                        CamillaRepositoryAdapter.consultaPorPacientes(List.of(id, new ObjectId().toHexString()))),
+                new ConsultaVerificada("CamillaRepositoryAdapter.findPage(estado)", CamillaDocument.class,
+                        KeysetPaginador.consultaPagina(CamillaRepositoryAdapter.filtroPagina("Disponible"), cursor, limite, null)),
+                new ConsultaVerificada("PacienteRepository.findByDocumentoIdentidad", PacienteDocument.class,
+                        new Query(Criteria.where("documentoIdentidad").is("0"))),
+                new ConsultaVerificada("PacienteRepository.findByNumeroHistoriaClinica", PacienteDocument.class,
+                        new Query(Criteria.where("numeroHistoriaClinica").is("0"))),
+                new ConsultaVerificada("PacienteRepositoryAdapter.buscarPorNombre(tokens)", PacienteDocument.class,
+                        PacienteRepositoryAdapter.consultaTokensCompletos(terminos, limite)),
+                new ConsultaVerificada("PacienteRepositoryAdapter.buscarPorNombre(prefijos)", PacienteDocument.class,
+                        PacienteRepositoryAdapter.consultaPrefijos(terminos, List.of(id), limite)),
+                new ConsultaVerificada("HospitalRepository.findByCity", HospitalDocument.class,
+                        new Query(Criteria.where("city").is("Bogotá"))),
+                new ConsultaVerificada("HospitalRepositoryAdapter.findPage(city)", HospitalDocument.class,
+                        KeysetPaginador.consultaPagina(HospitalRepositoryAdapter.filtroPagina("Bogotá"), cursor, limite, null)),
+                new ConsultaVerificada("OutboxEventRepository.findFirstByEstadoOrderByCreadoEnAsc", OutboxEventDocument.class,
+                        new Query(Criteria.where("estado").is(OutboxEventDocument.PENDIENTE)).with(Sort.by("creadoEn")).limit(1)),
+                new ConsultaVerificada("OutboxRepositoryAdapter.reclamarPendientes", OutboxEventDocument.class,
+                        OutboxRepositoryAdapter.consultaDisponibles(Instant.now(), limite))
+        ));
+
+        // Cada combinación de filtros que acepta filtrarPacientes (las fechas exigen estado)
+        List<PacienteFiltro> filtros = List.of(
+                new PacienteFiltro("Hospitalizado", null, null, null, null),
+                new PacienteFiltro(null, "Sura", null, null, null),
+                new PacienteFiltro(null, null, "O+", null, null),
+                new PacienteFiltro("Hospitalizado", "Sura", null, null, null),
+                new PacienteFiltro("Hospitalizado", null, "O+", null, null),
+                new PacienteFiltro(null, "Sura", "O+", null, null),
+                new PacienteFiltro("Alta", null, null, "2024-01-01", "2024-01-31"),
+                new PacienteFiltro("Alta", null, null, "2024-01-01", null),
+                new PacienteFiltro("Alta", "Sura", null, "2024-01-01", "2024-01-31"));
+        for (PacienteFiltro filtro : filtros) {
+            consultas.add(new ConsultaVerificada("PacienteRepositoryAdapter.findPage" + filtro, PacienteDocument.class,
+                    KeysetPaginador.consultaPagina(PacienteRepositoryAdapter.criterio(filtro), cursor, limite, null)));
+        }
+        return consultas;
+    }
+
+    /**
+     * Retorna las consultas con problemas: COLLSCAN, SORT en memoria o sin plan.
+     * Si Mongo no responde, en modo fail detiene el arranque; en report solo lo registra.
+     */
+    private List<String> verificarConsultas() {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        List<String> conProblemas = new ArrayList<>();
+
+        List<ConsultaVerificada> consultas = consultas();
+        for (ConsultaVerificada consulta : consultas) {
+            try {
+                MongoPersistentEntity<?> entidad = mongoTemplate.getConverter().getMappingContext()
+                        .getRequiredPersistentEntity(consulta.documento());
+                Document filtro = queryMapper.getMappedObject(consulta.query().getQueryObject(), entidad);
+                Document orden = queryMapper.getMappedSort(consulta.query().getSortObject(), entidad);
+
+                Document plan = mongoTemplate.getCollection(entidad.getCollection())
+                        .find(filtro)
+                        .sort(orden)
+                        .limit(consulta.query().getLimit())
+                        .explain();
+
+                Object planner = plan.get("queryPlanner");
+                if (contieneEtapa(planner, "COLLSCAN")) {
+                    conProblemas.add(consulta.nombre() + " (COLLSCAN)");
+                    log.warn("🐢 {} recorre la colección completa (COLLSCAN): filtro={}", consulta.nombre(), filtro.toJson());
+                } else if (contieneEtapa(planner, "SORT")) {
+                    conProblemas.add(consulta.nombre() + " (SORT)");
+                    log.warn("🐢 {} ordena en memoria (SORT): filtro={}, orden={}", consulta.nombre(), filtro.toJson(), orden.toJson());
+                } else {
+                    log.debug("✅ {} usa índice", consulta.nombre());
+                }
+            } catch (MongoTimeoutException e) {
+                if (falla()) {
+                    throw new IllegalStateException("Mongo no disponible para verificar los índices", e);
+                }
+                log.warn("⚠️ Mongo no disponible, se omite la verificación de índices: {}", e.getMessage());
+                return conProblemas;
+            } catch (Exception e) {
+                conProblemas.add(consulta.nombre() + " (sin plan)");
+                log.warn("⚠️ No se pudo obtener el plan de {}: {}", consulta.nombre(), e.getMessage());
+            }
+        }
+
+        if (conProblemas.isEmpty()) {
+            log.info("✅ Verificación de índices: las {} consultas de los repositorios usan índice", consultas.size());
+        }
+        return conProblemas;
+    }
+
+    private boolean falla() {
+        return "fail".equalsIgnoreCase(verificacion);
+    }
+
+    // El plan ganador puede venir anidado (inputStage, inputStages, queryPlan) según la versión de Mongo
+    private boolean contieneEtapa(Object nodo, String etapa) {
+        if (nodo instanceof Document documento) {
+            if (etapa.equals(documento.get("stage"))) {
+                return true;
+            }
+            for (String clave : documento.keySet()) {
+                if (!"rejectedPlans".equals(clave) && contieneEtapa(documento.get(clave), etapa)) {
+                    return true;
+                }
+            }
+        } else if (nodo instanceof List<?> lista) {
+            for (Object elemento : lista) {
+                if (contieneEtapa(elemento, etapa)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.hospital.adapters.config;
+
+import com.example.hospital.adapters.busqueda.NombreTokens;
+import com.example.hospital.adapters.document.PacienteDocument;
+import com.mongodb.MongoTimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 🔀 Migración al arrancar: calcula nombreTokens (búsqueda por nombre) en los pacientes guardados
+ * antes de que existiera el campo. Es idempotente y trabaja por lotes.
+ * Se desactiva con hospital.mongo.migraciones.nombre-tokens=false.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NombreTokensMigracion implements SmartInitializingSingleton {
+
+    private static final int LOTE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${hospital.mongo.migraciones.nombre-tokens:true}")
+    private boolean habilitada;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            int migrados = migrar();
+            if (migrados > 0) {
+                log.info("🔀 nombreTokens calculado en {} pacientes", migrados);
+            }
+        } catch (DataAccessResourceFailureException | MongoTimeoutException e) {
+            log.warn("⚠️ Mongo no disponible, se omite la migración de nombreTokens: {}", e.getMessage());
+        }
+    }
+
+    private int migrar() {
+        Query sinTokens = new Query(Criteria.where("nombreTokens").exists(false)).limit(LOTE);
+        sinTokens.fields().include("primerNombre", "segundoNombre", "primerApellido", "segundoApellido");
+        int migrados = 0;
+
+        // Cada vuelta consulta de nuevo: los pacientes ya migrados dejan de cumplir el filtro
+        List<PacienteDocument> lote;
+        while (!(lote = mongoTemplate.find(sinTokens, PacienteDocument.class)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PacienteDocument.class);
+            for (PacienteDocument paciente : lote) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(paciente.getId())),
+                        new Update().set("nombreTokens", NombreTokens.de(paciente)));
+            }
+            migrados += bulk.execute().getMatchedCount();
+        }
+        return migrados;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.hospital.adapters.config;
+
+import com.example.hospital.adapters.document.CamillaDocument;
+import com.example.hospital.adapters.document.PacienteDocument;
+import com.example.hospital.adapters.document.PacienteResumenDocument;
+import com.mongodb.MongoTimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 🔀 Migración al arrancar: las camillas guardadas con el paciente como @DBRef
+ * ({"$ref": "pacientes", "$id": ...}) pasan a tener el resumen del paciente embebido.
+ *
+ * Es idempotente: solo toca camillas que aún tienen la referencia, por lotes.
+ * Si el paciente referenciado ya no existe, se quita la referencia rota y se registra en el log.
+ * Se desactiva con hospital.mongo.migraciones.resumen-paciente=false.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResumenPacienteMigracion implements SmartInitializingSingleton {
+
+    private static final int LOTE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${hospital.mongo.migraciones.resumen-paciente:true}")
+    private boolean habilitada;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            int migradas = migrar();
+            if (migradas > 0) {
+                log.info("🔀 {} camillas migradas de @DBRef a resumen de paciente embebido", migradas);
+            }
+        } catch (DataAccessResourceFailureException | MongoTimeoutException e) {
+            log.warn("⚠️ Mongo no disponible, se omite la migración del resumen de paciente: {}", e.getMessage());
+        }
+    }
+
+    private int migrar() {
+        Document conReferencia = new Document("paciente.$id", new Document("$exists", true));
+        int migradas = 0;
+
+        // Cada vuelta consulta de nuevo: las camillas ya migradas dejan de cumplir el filtro
+        List<Document> lote;
+        while (!(lote = leerLote(conReferencia)).isEmpty()) {
+            List<Object> idsPaciente = lote.stream()
+                    .map(camilla -> camilla.get("paciente", Document.class).get("$id"))
+                    .distinct()
+                    .collect(Collectors.toList());
+            Map<String, PacienteDocument> pacientes = mongoTemplate
+                    .find(new Query(Criteria.where("_id").in(idsPaciente)), PacienteDocument.class)
+                    .stream()
+                    .collect(Collectors.toMap(PacienteDocument::getId, Function.identity()));
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CamillaDocument.class);
+            for (Document camilla : lote) {
+                Object idCamilla = camilla.get("_id");
+                String idPaciente = String.valueOf(camilla.get("paciente", Document.class).get("$id"));
+                PacienteDocument paciente = pacientes.get(idPaciente);
+
+                Update update = paciente != null
+                        ? new Update().set("paciente", PacienteResumenDocument.desde(paciente))
+                        : new Update().unset("paciente");
+                if (paciente == null) {
+                    log.warn("⚠️ La camilla {} referencia al paciente {}, que no existe: se quita la referencia",
+                            idCamilla, idPaciente);
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(idCamilla)), update);
+            }
+            migradas += bulk.execute().getModifiedCount();
+        }
+        return migradas;
+    }
+
+    private List<Document> leerLote(Document filtro) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(CamillaDocument.class))
+                .find(filtro)
+                .projection(new Document("paciente", 1))
+                .limit(LOTE)
+                .into(new ArrayList<>());
+    }
+}
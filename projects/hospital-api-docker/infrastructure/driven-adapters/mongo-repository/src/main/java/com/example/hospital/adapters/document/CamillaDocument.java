@@ -1,13 +1,17 @@
 package com.example.hospital.adapters.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 /**
  * Representa una camilla en el hospital.
  */
 @Document(collection = "camillas")
+// findByEstado y la paginación por estado (ordenada por _id)
+@CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}")
+// findByPaciente_Id: busca por el id del resumen embebido
+@CompoundIndex(name = "paciente_id", def = "{'paciente._id': 1}")
 public class CamillaDocument {
 
     @Id
@@ -16,14 +20,14 @@ public class CamillaDocument {
     private String habitacion;
     private String fechaInicio;
     private String fechaFin;
-    @DBRef
-    private PacienteDocument paciente;
+    // Resumen embebido (antes @DBRef): leer camillas es una sola consulta, sin ir a pacientes
+    private PacienteResumenDocument paciente;
 
     public CamillaDocument() {
     }
 
     public CamillaDocument(String id, String estado, String habitacion, String fechaInicio,
-                           String fechaFin, PacienteDocument paciente) {
+                           String fechaFin, PacienteResumenDocument paciente) {
         this.id = id;
         this.estado = estado;
         this.habitacion = habitacion;
@@ -73,11 +77,11 @@ public class CamillaDocument {
         this.fechaFin = fechaFin;
     }
 
-    public PacienteDocument getPaciente() {
+    public PacienteResumenDocument getPaciente() {
         return paciente;
     }
 
-    public void setPaciente(PacienteDocument paciente) {
+    public void setPaciente(PacienteResumenDocument paciente) {
         this.paciente = paciente;
     }
 
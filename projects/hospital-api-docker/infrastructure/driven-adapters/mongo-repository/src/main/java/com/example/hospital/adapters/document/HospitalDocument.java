@@ -1,9 +1,11 @@
 package com.example.hospital.adapters.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "hospitals")
+@CompoundIndex(name = "city_id", def = "{'city': 1, '_id': 1}")
 public class HospitalDocument {
     /*No se usa @Entity, porque no hay tablas ni ORM.
      En su lugar, se usa @Document para decirle a Spring Data MongoDB que esta clase
@@ -0,0 +1,114 @@
+package com.example.hospital.adapters.document;
+
+import com.example.hospital.model.CamillaLiberadaEvent;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Evento pendiente, publicado o fallido de la colección outbox.
+ * Los publicados se eliminan solos pasados 7 días (índice TTL sobre publicadoEn);
+ * los fallidos (agotaron los intentos) se conservan para revisarlos.
+ */
+@Document(collection = "outbox_eventos")
+@CompoundIndex(name = "estado_creadoEn", def = "{'estado': 1, 'creadoEn': 1}")
+// Reclamo del relay: pendientes cuyo próximo intento ya llegó, en orden
+@CompoundIndex(name = "estado_disponibleEn", def = "{'estado': 1, 'disponibleEn': 1}")
+public class OutboxEventDocument {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String PUBLICADO = "PUBLICADO";
+    public static final String FALLIDO = "FALLIDO";
+
+    @Id
+    private String id;
+    private String routingKey;
+    private CamillaLiberadaEvent payload;
+    private String estado = PENDIENTE;
+    private Instant creadoEn;
+    @Indexed(expireAfter = "7d")
+    private Instant publicadoEn;
+    private int intentos;
+    // Desde cuándo el relay puede tomarlo: la creación, el fin del lease de un reclamo o el próximo reintento
+    private Instant disponibleEn;
+    // Reclamo (lote de un relay) que lo tiene tomado
+    private String reclamo;
+
+    public OutboxEventDocument() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public CamillaLiberadaEvent getPayload() {
+        return payload;
+    }
+
+    public void setPayload(CamillaLiberadaEvent payload) {
+        this.payload = payload;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Instant getCreadoEn() {
+        return creadoEn;
+    }
+
+    public void setCreadoEn(Instant creadoEn) {
+        this.creadoEn = creadoEn;
+    }
+
+    public Instant getPublicadoEn() {
+        return publicadoEn;
+    }
+
+    public void setPublicadoEn(Instant publicadoEn) {
+        this.publicadoEn = publicadoEn;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+
+    public Instant getDisponibleEn() {
+        return disponibleEn;
+    }
+
+    public void setDisponibleEn(Instant disponibleEn) {
+        this.disponibleEn = disponibleEn;
+    }
+
+    public String getReclamo() {
+        return reclamo;
+    }
+
+    public void setReclamo(String reclamo) {
+        this.reclamo = reclamo;
+    }
+}
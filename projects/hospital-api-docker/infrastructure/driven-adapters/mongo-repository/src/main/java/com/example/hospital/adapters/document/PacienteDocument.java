@@ -1,17 +1,29 @@
 package com.example.hospital.adapters.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Representa un paciente en la base de datos MongoDB.
  * Clase sin Lombok para evitar conflictos con MapStruct.
  */
 @Document(collection = "pacientes")
+// Paginación por estado (ordenada por _id)
+@CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}")
+// Listado filtrado (siempre ordenado por _id): estado + eps, y eps o tipoSangre sin estado
+@CompoundIndex(name = "estado_eps_id", def = "{'estado': 1, 'eps': 1, '_id': 1}")
+@CompoundIndex(name = "eps_id", def = "{'eps': 1, '_id': 1}")
+@CompoundIndex(name = "tipoSangre_id", def = "{'tipoSangre': 1, '_id': 1}")
+// Estado + rango de fecha de alta: el rango va después de _id para que el orden salga del índice
+// (con fechaAlta antes de _id, Mongo tendría que ordenar en memoria todos los del rango)
+@CompoundIndex(name = "estado_id_fechaAlta", def = "{'estado': 1, '_id': 1, 'fechaAlta': 1}")
 public class PacienteDocument implements Serializable {
 
     @Id
@@ -20,6 +32,8 @@ public class PacienteDocument implements Serializable {
     private String segundoNombre;
     private String primerApellido;
     private String segundoApellido;
+    // Único y sparse: los pacientes sin el dato no chocan entre sí
+    @Indexed(name = "documentoIdentidad", unique = true, sparse = true)
     private String documentoIdentidad;
 
     @JsonFormat(pattern = "yyyy-MM-dd")
@@ -35,9 +49,18 @@ public class PacienteDocument implements Serializable {
     private String fechaAlta;
 
     // Información administrativa
+    @Indexed(name = "numeroHistoriaClinica", unique = true, sparse = true)
     private String numeroHistoriaClinica; // Código único interno del hospital
     private String eps;
 
+    // Se incrementa en cada escritura; los documentos anteriores a este campo cuentan como versión 0.
+    // No se usa @Version para que save() siga funcionando sobre esos documentos.
+    private Long version;
+
+    // Nombre y apellidos normalizados (minúsculas, sin tildes) para la búsqueda por nombre; lo calcula el adaptador
+    @Indexed(name = "nombreTokens")
+    private List<String> nombreTokens;
+
     // 🔹 Constructor vacío (obligatorio para Spring Data)
     public PacienteDocument() {
     }
@@ -175,4 +198,20 @@ public class PacienteDocument implements Serializable {
     public void setEps(String eps) {
         this.eps = eps;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<String> getNombreTokens() {
+        return nombreTokens;
+    }
+
+    public void setNombreTokens(List<String> nombreTokens) {
+        this.nombreTokens = nombreTokens;
+    }
 }
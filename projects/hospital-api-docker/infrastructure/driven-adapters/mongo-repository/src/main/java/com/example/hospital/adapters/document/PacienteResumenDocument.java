@@ -0,0 +1,71 @@
+package com.example.hospital.adapters.document;
+
+/**
+ * Resumen del paciente embebido en la camilla (subdocumento "paciente" de camillas).
+ * Copia de los campos que usa el tablero de camas; se sincroniza al actualizar el paciente.
+ */
+public class PacienteResumenDocument {
+
+    private String id;
+    private String primerNombre;
+    private String primerApellido;
+    private String documentoIdentidad;
+    private String estado;
+
+    public PacienteResumenDocument() {
+    }
+
+    public PacienteResumenDocument(String id, String primerNombre, String primerApellido,
+                                   String documentoIdentidad, String estado) {
+        this.id = id;
+        this.primerNombre = primerNombre;
+        this.primerApellido = primerApellido;
+        this.documentoIdentidad = documentoIdentidad;
+        this.estado = estado;
+    }
+
+    public static PacienteResumenDocument desde(PacienteDocument paciente) {
+        return new PacienteResumenDocument(paciente.getId(), paciente.getPrimerNombre(), paciente.getPrimerApellido(),
+                paciente.getDocumentoIdentidad(), paciente.getEstado());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPrimerNombre() {
+        return primerNombre;
+    }
+
+    public void setPrimerNombre(String primerNombre) {
+        this.primerNombre = primerNombre;
+    }
+
+    public String getPrimerApellido() {
+        return primerApellido;
+    }
+
+    public void setPrimerApellido(String primerApellido) {
+        this.primerApellido = primerApellido;
+    }
+
+    public String getDocumentoIdentidad() {
+        return documentoIdentidad;
+    }
+
+    public void setDocumentoIdentidad(String documentoIdentidad) {
+        this.documentoIdentidad = documentoIdentidad;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+}
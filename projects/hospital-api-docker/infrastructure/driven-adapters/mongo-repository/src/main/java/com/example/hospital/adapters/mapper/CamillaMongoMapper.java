@@ -1,27 +1,51 @@
 package com.example.hospital.adapters.mapper;
 
 import com.example.hospital.adapters.document.CamillaDocument;
+import com.example.hospital.adapters.document.PacienteResumenDocument;
 import com.example.hospital.model.Camilla;
- import org.mapstruct.Mapper;
+import com.example.hospital.model.Paciente;
+import com.example.hospital.model.PacienteResumen;
+import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
 /**
- * Mapper que convierte entre los modelos de dominio (Camilla, Paciente)
- * y los documentos de persistencia (CamillaDocument, PacienteDocument).
+ * Mapper que convierte entre el modelo de dominio Camilla y el documento de persistencia CamillaDocument.
+ * El paciente se guarda como resumen embebido: el dominio recibe pacienteId y pacienteResumen,
+ * y el paciente completo lo carga quien lo necesite.
  */
 
 @Mapper(
         componentModel = "spring",
-        unmappedTargetPolicy = ReportingPolicy.IGNORE,
-        uses = { PacienteMongoMapper.class } // 👈 clave
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
 )
 public interface CamillaMongoMapper {
 
-    // Mapea el campo anidado paciente <-> paciente usando PacienteMongoMapper
-    @Mapping(target = "paciente", source = "paciente")
+    @Mapping(target = "paciente", ignore = true)
+    @Mapping(target = "pacienteId", ignore = true)
+    @Mapping(target = "pacienteResumen", source = "paciente")
     Camilla toDomain(CamillaDocument doc);
 
-    @Mapping(target = "paciente", source = "paciente")
+    @Mapping(target = "paciente", source = "pacienteResumen")
     CamillaDocument toDocument(Camilla domain);
-}
\ No newline at end of file
+
+    default PacienteResumen toResumen(PacienteResumenDocument doc) {
+        if (doc == null) {
+            return null;
+        }
+        return new PacienteResumen(doc.getId(), doc.getPrimerNombre(), doc.getPrimerApellido(),
+                doc.getDocumentoIdentidad(), doc.getEstado());
+    }
+
+    default PacienteResumenDocument toResumenDocument(PacienteResumen resumen) {
+        if (resumen == null) {
+            return null;
+        }
+        return new PacienteResumenDocument(resumen.id(), resumen.primerNombre(), resumen.primerApellido(),
+                resumen.documentoIdentidad(), resumen.estado());
+    }
+
+    default PacienteResumenDocument toResumenDocument(Paciente paciente) {
+        return paciente != null ? toResumenDocument(PacienteResumen.desde(paciente)) : null;
+    }
+}
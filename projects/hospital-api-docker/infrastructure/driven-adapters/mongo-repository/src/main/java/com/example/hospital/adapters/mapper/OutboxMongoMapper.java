@@ -0,0 +1,17 @@
+package com.example.hospital.adapters.mapper;
+
+import com.example.hospital.adapters.document.OutboxEventDocument;
+import com.example.hospital.model.OutboxEvent;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface OutboxMongoMapper {
+
+    OutboxEvent toDomain(OutboxEventDocument doc);
+
+    OutboxEventDocument toDocument(OutboxEvent event);
+}
@@ -0,0 +1,95 @@
+package com.example.hospital.adapters.paging;
+
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.model.Pagina;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 📄 Paginación por cursor (keyset) sobre el _id de una colección.
+ * Cada página es una consulta "_id > cursor ORDER BY _id LIMIT n+1": no usa skip,
+ * así que el costo por página no crece con el tamaño de la colección.
+ * El cursor es el _id codificado en base64 (opaco para el cliente).
+ */
+public final class KeysetPaginador {
+
+    private KeysetPaginador() {
+    }
+
+    public static <D, T> Pagina<T> buscarPagina(MongoTemplate mongoTemplate,
+                                               Criteria filtro,
+                                               String after,
+                                               int limit,
+                                               Class<D> tipoDocumento,
+                                               Function<D, String> idDocumento,
+                                               Function<D, T> mapper) {
+        return buscarPagina(mongoTemplate, filtro, after, limit, null, tipoDocumento, idDocumento, mapper);
+    }
+
+    /**
+     * Igual que la anterior, leyendo de Mongo solo "campos" (el _id siempre, porque es el cursor).
+     * Con campos en null se lee el documento completo.
+     */
+    public static <D, T> Pagina<T> buscarPagina(MongoTemplate mongoTemplate,
+                                               Criteria filtro,
+                                               String after,
+                                               int limit,
+                                               Collection<String> campos,
+                                               Class<D> tipoDocumento,
+                                               Function<D, String> idDocumento,
+                                               Function<D, T> mapper) {
+        List<D> documentos = mongoTemplate.find(consultaPagina(filtro, after, limit, campos), tipoDocumento);
+
+        boolean haySiguiente = documentos.size() > limit;
+        List<D> pagina = haySiguiente ? documentos.subList(0, limit) : documentos;
+
+        List<T> items = new ArrayList<>(pagina.size());
+        List<String> cursores = new ArrayList<>(pagina.size());
+        for (D documento : pagina) {
+            items.add(mapper.apply(documento));
+            cursores.add(codificar(idDocumento.apply(documento)));
+        }
+        return new Pagina<>(items, cursores, haySiguiente);
+    }
+
+    /**
+     * La consulta de una página; MongoIndexInitializer la usa para verificar su plan con explain.
+     */
+    public static Query consultaPagina(Criteria filtro, String after, int limit, Collection<String> campos) {
+        Criteria criteria = filtro != null ? filtro : new Criteria();
+        if (after != null && !after.isBlank()) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(decodificar(after)));
+        }
+
+        // Se pide un elemento de más solo para saber si existe una página siguiente
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit + 1);
+        if (campos != null) {
+            query.fields().include("_id");
+            campos.forEach(campo -> query.fields().include(campo));
+        }
+        return query;
+    }
+
+    public static String codificar(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodificar(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("BAD_REQUEST", "Cursor de paginación inválido: " + cursor, "400");
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.Optional;
 public interface CamillaRepository extends MongoRepository<CamillaDocument, String> {
     List<CamillaDocument> findByEstado(String estado);
 
-    //  Busca la camillaDocument cuyo @DBRef paciente tiene este id
+    // Busca la camilla cuyo resumen de paciente embebido tiene este id
     Optional<CamillaDocument> findByPaciente_Id(String pacienteId);
 }
 
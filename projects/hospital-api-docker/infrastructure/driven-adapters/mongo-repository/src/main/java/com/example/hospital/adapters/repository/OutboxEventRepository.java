@@ -0,0 +1,14 @@
+package com.example.hospital.adapters.repository;
+
+
+import com.example.hospital.adapters.document.OutboxEventDocument;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface OutboxEventRepository extends MongoRepository<OutboxEventDocument, String> {
+
+    Optional<OutboxEventDocument> findFirstByEstadoOrderByCreadoEnAsc(String estado);
+
+    long countByEstado(String estado);
+}
@@ -4,6 +4,12 @@ package com.example.hospital.adapters.repository;
 import com.example.hospital.adapters.document.PacienteDocument;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Optional;
+
 public interface PacienteRepository extends MongoRepository<PacienteDocument, String> {
-}
 
+    // Ambos campos tienen índice único (sparse): a lo sumo un paciente por valor
+    Optional<PacienteDocument> findByDocumentoIdentidad(String documentoIdentidad);
+
+    Optional<PacienteDocument> findByNumeroHistoriaClinica(String numeroHistoriaClinica);
+}
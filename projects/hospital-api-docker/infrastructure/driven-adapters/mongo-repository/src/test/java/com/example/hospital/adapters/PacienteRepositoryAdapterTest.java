@@ -0,0 +1,99 @@
+package com.example.hospital.adapters;
+
+import com.example.hospital.adapters.document.CamillaDocument;
+import com.example.hospital.adapters.document.PacienteDocument;
+import com.example.hospital.adapters.mapper.PacienteMongoMapperImpl;
+import com.example.hospital.adapters.repository.PacienteRepository;
+import com.example.hospital.model.Paciente;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PacienteRepositoryAdapterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final PacienteRepositoryAdapter adapter = new PacienteRepositoryAdapter(
+            mock(PacienteRepository.class), new PacienteMongoMapperImpl(), mongoTemplate);
+
+    PacienteRepositoryAdapterTest() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+    }
+
+    private static PacienteDocument guardado(String estado, String alergias) {
+        PacienteDocument doc = new PacienteDocument();
+        doc.setId("p1");
+        doc.setPrimerNombre("María");
+        doc.setPrimerApellido("López");
+        doc.setDocumentoIdentidad("CC1");
+        doc.setEstado(estado);
+        doc.setAlergias(alergias);
+        doc.setVersion(3L);
+        return doc;
+    }
+
+    private static Paciente cambio(String estado, String alergias) {
+        Paciente cambios = new Paciente();
+        cambios.setEstado(estado);
+        cambios.setAlergias(alergias);
+        return cambios;
+    }
+
+    @Test
+    void unCambioFueraDelResumenNoEscribeEnCamillas() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(PacienteDocument.class)))
+                .thenReturn(guardado("Hospitalizado", null));
+
+        Paciente actualizado = adapter.patch("p1", cambio(null, "Penicilina"), null).orElseThrow();
+
+        assertThat(actualizado.getAlergias()).isEqualTo("Penicilina");
+        assertThat(actualizado.getVersion()).isEqualTo(4L);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(CamillaDocument.class));
+    }
+
+    @Test
+    void repetirElMismoEstadoNoEscribeEnCamillas() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(PacienteDocument.class)))
+                .thenReturn(guardado("Alta", null));
+
+        adapter.patch("p1", cambio("Alta", null), null);
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(CamillaDocument.class));
+    }
+
+    @Test
+    void unCambioDeEstadoActualizaElResumenDeLaCamilla() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(PacienteDocument.class)))
+                .thenReturn(guardado("Hospitalizado", null));
+
+        Paciente actualizado = adapter.patch("p1", cambio("Alta", null), null).orElseThrow();
+
+        assertThat(actualizado.getEstado()).isEqualTo("Alta");
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(CamillaDocument.class));
+    }
+
+    @Test
+    void saveSinCambiosEnElResumenNoEscribeEnCamillas() {
+        when(mongoTemplate.findAndReplace(any(Query.class), any(PacienteDocument.class)))
+                .thenReturn(guardado("Hospitalizado", null));
+        Paciente paciente = new PacienteMongoMapperImpl().toDomain(guardado("Hospitalizado", "Polen"));
+
+        Paciente guardado = adapter.save(paciente);
+
+        assertThat(guardado.getVersion()).isEqualTo(4L);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(CamillaDocument.class));
+    }
+}
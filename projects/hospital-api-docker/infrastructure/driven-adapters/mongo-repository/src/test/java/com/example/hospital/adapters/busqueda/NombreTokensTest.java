@@ -0,0 +1,102 @@
+package com.example.hospital.adapters.busqueda;
+
+import com.example.hospital.adapters.document.PacienteDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NombreTokensTest {
+
+    private static PacienteDocument paciente(String id, String primerNombre, String segundoNombre,
+                                             String primerApellido, String segundoApellido) {
+        PacienteDocument paciente = new PacienteDocument();
+        paciente.setId(id);
+        paciente.setPrimerNombre(primerNombre);
+        paciente.setSegundoNombre(segundoNombre);
+        paciente.setPrimerApellido(primerApellido);
+        paciente.setSegundoApellido(segundoApellido);
+        return paciente;
+    }
+
+    private static List<String> ids(List<PacienteDocument> pacientes) {
+        return pacientes.stream().map(PacienteDocument::getId).toList();
+    }
+
+    @Test
+    void quitaTildesDieresisYMayusculas() {
+        assertThat(NombreTokens.tokens("María José", "Núñez", "Güell", "ÁLVAREZ"))
+                .containsExactly("maria", "jose", "nunez", "guell", "alvarez");
+    }
+
+    @Test
+    void laFormaCompuestaYLaDescompuestaDanLoMismo() {
+        // "é" como un solo carácter y como "e" + tilde combinada
+        assertThat(NombreTokens.tokens("Jos\u00e9")).isEqualTo(NombreTokens.tokens("Jose\u0301")).containsExactly("jose");
+    }
+
+    @Test
+    void parteEnCualquierSeparadorYNoRepite() {
+        assertThat(NombreTokens.tokens("Ana-María  O'Neil", null, "ana"))
+                .containsExactly("ana", "maria", "o", "neil");
+    }
+
+    @Test
+    void losTerminosSeNormalizanComoLosTokens() {
+        assertThat(NombreTokens.terminos("  MARÍA  lópez ")).containsExactly("maria", "lopez");
+        assertThat(NombreTokens.terminos(null)).isEmpty();
+    }
+
+    @Test
+    void tomaLosCuatroCamposDelNombre() {
+        assertThat(NombreTokens.de(paciente("p1", "Luis", null, "Pérez", "Gómez")))
+                .containsExactly("luis", "perez", "gomez");
+    }
+
+    @Test
+    void primeroLasCoincidenciasCompletas() {
+        List<PacienteDocument> candidatos = List.of(
+                paciente("mariana", "Mariana", null, "López", null),
+                paciente("maria", "María", null, "López", null));
+
+        List<PacienteDocument> ordenados = NombreTokens.ordenarPorRelevancia(candidatos, List.of("maria", "lop"));
+
+        assertThat(ids(ordenados)).containsExactly("maria", "mariana");
+    }
+
+    @Test
+    void luegoLasQueRespetanElOrdenDelNombre() {
+        List<PacienteDocument> candidatos = List.of(
+                paciente("invertido", "López", null, "María", null),
+                paciente("enOrden", "María", null, "López", null));
+
+        List<PacienteDocument> ordenados = NombreTokens.ordenarPorRelevancia(candidatos, List.of("maria", "lopez"));
+
+        assertThat(ids(ordenados)).containsExactly("enOrden", "invertido");
+    }
+
+    @Test
+    void luegoLosNombresMasCortosYAlFinalElOrdenAlfabetico() {
+        List<PacienteDocument> candidatos = List.of(
+                paciente("largo", "Ana", "Lucía", "Ruiz", "Soto"),
+                paciente("zeta", "Ana", null, "Zapata", null),
+                paciente("corto", "Ana", null, "Ruiz", null));
+
+        List<PacienteDocument> ordenados = NombreTokens.ordenarPorRelevancia(candidatos, List.of("ana"));
+
+        assertThat(ids(ordenados)).containsExactly("corto", "zeta", "largo");
+    }
+
+    @Test
+    void usaLosTokensGuardadosSiExisten() {
+        PacienteDocument guardado = paciente("guardado", "Otro", null, "Nombre", null);
+        guardado.setNombreTokens(List.of("maria", "lopez"));
+        PacienteDocument calculado = paciente("calculado", "Mariela", null, "López", null);
+
+        List<PacienteDocument> ordenados = NombreTokens.ordenarPorRelevancia(
+                List.of(calculado, guardado), List.of("maria"));
+
+        assertThat(ids(ordenados)).containsExactly("guardado", "calculado");
+    }
+}
@@ -1,19 +1,56 @@
 package com.example.hospital.adapters.events;
 
+import com.example.hospital.adapters.events.config.RabbitMQConfig;
+import com.example.hospital.adapters.events.publisher.BatchingEventPublisher;
 import com.example.hospital.model.CamillaLiberadaEvent;
 import com.example.hospital.ports.input.EventPublisherPort;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publica eventos de dominio en RabbitMQ.
+ * Modos (hospital.events.publisher.mode):
+ *  - direct: cada evento se envía en el hilo que publica (comportamiento original).
+ *  - batched: el evento se encola y se envía en lotes con confirmación asíncrona (ver BatchingEventPublisher).
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RabbitEventPublisherAdapter implements EventPublisherPort {
 
     private final RabbitTemplate rabbitTemplate;
+    private final BatchingEventPublisher batchingPublisher;
+    private final boolean modoLotes;
+
+    public RabbitEventPublisherAdapter(RabbitTemplate rabbitTemplate,
+                                       BatchingEventPublisher batchingPublisher,
+                                       @Value("${hospital.events.publisher.mode:direct}") String modo) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchingPublisher = batchingPublisher;
+        this.modoLotes = "batched".equalsIgnoreCase(modo);
+        log.info("📨 Publicador de eventos en modo: {}", modoLotes ? "batched" : "direct");
+    }
 
     @Override
     public void publish(String routingKey, CamillaLiberadaEvent event) {
-        rabbitTemplate.convertAndSend("hospital.events.exchange", routingKey, event);
+        if (!modoLotes) {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, routingKey, event);
+            return;
+        }
+        batchingPublisher.enqueue(routingKey, event)
+                .exceptionally(error -> {
+                    log.error("❌ Evento {} no confirmado por el broker: {}", routingKey, error.getMessage());
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(String routingKey, CamillaLiberadaEvent event) {
+        return modoLotes
+                ? batchingPublisher.enqueue(routingKey, event)
+                : batchingPublisher.sendNow(routingKey, event);
     }
 }
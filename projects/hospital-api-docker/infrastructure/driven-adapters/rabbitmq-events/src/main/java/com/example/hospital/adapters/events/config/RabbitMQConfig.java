@@ -1,13 +1,16 @@
 package com.example.hospital.adapters.events.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
 
 /**
  * ⚙️ Configuración central de RabbitMQ para el microservicio hospital-api-events.
@@ -24,6 +27,9 @@ public class RabbitMQConfig {
     //  Nombre de la cola donde se recibirán los mensajes.
     public static final String QUEUE_NAME = "hospital.events.queue";
 
+    // Cola de mensajes muertos: lotes que fallaron después de todos los reintentos
+    public static final String DLQ_NAME = "hospital.events.queue.dlq";
+
     //  Nombre del exchange que actúa como punto de distribución de los mensajes.
     public static final String EXCHANGE_NAME = "hospital.events.exchange";
 
@@ -33,12 +39,22 @@ public class RabbitMQConfig {
     /**
      * 1 -  Definición de la cola (Queue)
      *
-     * - El segundo parámetro 'true' indica que la cola es "durable",
-     *   es decir, sobrevivirá a reinicios del broker RabbitMQ.
+     * - Es "durable", es decir, sobrevivirá a reinicios del broker RabbitMQ.
+     * - Los mensajes rechazados sin reencolar van a DLQ_NAME (exchange por defecto).
+     *   Ojo: si la cola ya existe sin estos argumentos, el broker rechaza la nueva declaración;
+     *   hay que eliminarla (vacía) una vez antes de desplegar.
      */
     @Bean
     public Queue queue() {
-        return new Queue(QUEUE_NAME, true);
+        return QueueBuilder.durable(QUEUE_NAME)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(DLQ_NAME)
+                .build();
+    }
+
+    @Bean
+    public Queue deadLetterQueue() {
+        return QueueBuilder.durable(DLQ_NAME).build();
     }
 
     /**
@@ -85,21 +101,62 @@ public class RabbitMQConfig {
      * - Inyecta el convertidor JSON en el template, para que todos los envíos
      *   de eventos se serialicen automáticamente.
      * - Este template es el que usa tu clase EventPublisher.
+     * - Publica por una conexión propia (usePublisherConnection), así un broker que aplica
+     *   control de flujo a los publicadores no frena también al listener.
      */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        template.setUsePublisherConnection(true);
         return template;
     }
 
+    /**
+     * 6 - Fábrica de listeners en modo lote
+     *
+     * - El consumidor agrupa hasta batch-size mensajes (o lo que llegue en receive-timeout-ms)
+     *   y el listener los recibe juntos como List<CamillaLiberadaEvent>.
+     * - prefetch debe ser >= batch-size para que el broker entregue lotes completos.
+     * - concurrency / max-concurrency controlan cuántos consumidores leen la cola en paralelo.
+     * - Si el listener falla, el lote se reintenta max-intentos veces con espera exponencial;
+     *   después se rechaza sin reencolar y el broker lo pasa a la DLQ (no se pierde ni se reintenta sin fin).
+     */
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
-            ConnectionFactory connectionFactory) {
+            ConnectionFactory connectionFactory,
+            @Value("${hospital.events.consumer.prefetch:250}") int prefetch,
+            @Value("${hospital.events.consumer.batch-size:50}") int batchSize,
+            @Value("${hospital.events.consumer.concurrency:1}") int concurrency,
+            @Value("${hospital.events.consumer.max-concurrency:4}") int maxConcurrency,
+            @Value("${hospital.events.consumer.receive-timeout-ms:1000}") long receiveTimeoutMs,
+            @Value("${hospital.events.consumer.max-intentos:3}") int maxIntentos,
+            @Value("${hospital.events.consumer.reintento-inicial-ms:1000}") long reintentoInicialMs,
+            @Value("${hospital.events.consumer.reintento-max-ms:10000}") long reintentoMaxMs) {
 
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(jsonMessageConverter()); // 🔥 importante
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setDefaultRequeueRejected(false);
+        factory.setAdviceChain(reintentos(maxIntentos, reintentoInicialMs, reintentoMaxMs));
         return factory;
     }
+
+    /**
+     * Reintentos del lote con espera exponencial; al agotarlos, RechazarLoteRecoverer lo rechaza hacia la DLQ.
+     */
+    static RetryOperationsInterceptor reintentos(int maxIntentos, long reintentoInicialMs, long reintentoMaxMs) {
+        return RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxIntentos)
+                .backOffOptions(reintentoInicialMs, 2.0, reintentoMaxMs)
+                .recoverer(new RechazarLoteRecoverer())
+                .build();
+    }
 }
@@ -0,0 +1,31 @@
+package com.example.hospital.adapters.events.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+
+import java.util.List;
+
+/**
+ * ☠️ Recuperación de un lote que agotó sus reintentos: se rechaza sin reencolar y el broker lo pasa a la DLQ.
+ *
+ * Con lotes de consumidor (setConsumerBatchEnabled) el reintento solo llama a recuperadores de lote
+ * (MessageBatchRecoverer); un MessageRecoverer simple se ignora y el lote se confirmaría y perdería.
+ */
+@Slf4j
+public class RechazarLoteRecoverer implements MessageBatchRecoverer {
+
+    @Override
+    public void recover(List<Message> mensajes, Throwable causa) {
+        log.error("☠️ Lote de {} mensajes enviado a la DLQ tras agotar los reintentos: {}",
+                mensajes.size(), causa.getMessage());
+        throw new AmqpRejectAndDontRequeueException("Reintentos agotados para el lote", causa);
+    }
+
+    @Override
+    public void recover(Message mensaje, Throwable causa) {
+        log.error("☠️ Mensaje enviado a la DLQ tras agotar los reintentos: {}", causa.getMessage());
+        throw new AmqpRejectAndDontRequeueException("Reintentos agotados para el mensaje", causa);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.hospital.adapters.events.outbox;
+
+import com.example.hospital.model.OutboxEvent;
+import com.example.hospital.ports.input.EventPublisherPort;
+import com.example.hospital.ports.out.OutboxRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 📮 Relay del outbox: drena en lotes los eventos pendientes y los publica en RabbitMQ
+ * con publisher confirms (EventPublisherPort.publishAsync). Solo marca como publicado lo que el broker confirmó (ack),
+ * el resto se reintenta más tarde (entrega "al menos una vez").
+ *
+ * Varias instancias pueden correr el relay a la vez: cada lote se reclama en Mongo con un lease
+ * (hospital.outbox.relay.lease-ms), así un evento no lo publican dos nodos salvo que el lease venza.
+ * Un evento sin confirmar espera reintento-inicial-ms, luego el doble... hasta reintento-max-ms;
+ * al llegar a max-intentos queda FALLIDO y deja de reintentarse (para no bloquear al resto con un evento venenoso).
+ *
+ * Métricas:
+ *  - hospital.outbox.pendientes: eventos aún sin publicar.
+ *  - hospital.outbox.lag: antigüedad (segundos) del evento pendiente más viejo.
+ *  - hospital.outbox.publicados / hospital.outbox.fallidos: throughput del relay.
+ *  - hospital.outbox.descartados: eventos que agotaron los intentos (quedan FALLIDO).
+ *  - hospital.outbox.lote: duración de cada lote (envío + confirmaciones).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepositoryPort outboxRepository;
+    private final EventPublisherPort eventPublisher;
+    private final int tamanoLote;
+    private final long timeoutConfirmMs;
+    private final Duration lease;
+    private final int maxIntentos;
+    private final long reintentoInicialMs;
+    private final long reintentoMaxMs;
+
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong lagSegundos = new AtomicLong();
+    private final Counter publicados;
+    private final Counter fallidos;
+    private final Counter descartados;
+    private final Timer duracionLote;
+
+    public OutboxRelay(OutboxRepositoryPort outboxRepository,
+                       EventPublisherPort eventPublisher,
+                       MeterRegistry meterRegistry,
+                       @Value("${hospital.outbox.relay.batch-size:100}") int tamanoLote,
+                       @Value("${hospital.outbox.relay.confirm-timeout-ms:5000}") long timeoutConfirmMs,
+                       @Value("${hospital.outbox.relay.lease-ms:30000}") long leaseMs,
+                       @Value("${hospital.outbox.relay.max-intentos:10}") int maxIntentos,
+                       @Value("${hospital.outbox.relay.reintento-inicial-ms:1000}") long reintentoInicialMs,
+                       @Value("${hospital.outbox.relay.reintento-max-ms:300000}") long reintentoMaxMs) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.tamanoLote = tamanoLote;
+        this.timeoutConfirmMs = timeoutConfirmMs;
+        // El lease debe cubrir el envío y la espera de confirmaciones, si no otro nodo retoma el lote en curso
+        this.lease = Duration.ofMillis(Math.max(leaseMs, 2 * timeoutConfirmMs));
+        this.maxIntentos = maxIntentos;
+        this.reintentoInicialMs = reintentoInicialMs;
+        this.reintentoMaxMs = reintentoMaxMs;
+
+        Gauge.builder("hospital.outbox.pendientes", pendientes, AtomicLong::get)
+                .description("Eventos del outbox pendientes de publicar")
+                .register(meterRegistry);
+        Gauge.builder("hospital.outbox.lag", lagSegundos, AtomicLong::get)
+                .description("Antigüedad del evento pendiente más viejo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publicados = Counter.builder("hospital.outbox.publicados")
+                .description("Eventos publicados y confirmados por el broker")
+                .register(meterRegistry);
+        this.fallidos = Counter.builder("hospital.outbox.fallidos")
+                .description("Eventos rechazados o sin confirmación a tiempo")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("hospital.outbox.descartados")
+                .description("Eventos que agotaron los intentos y quedaron FALLIDO")
+                .register(meterRegistry);
+        this.duracionLote = Timer.builder("hospital.outbox.lote")
+                .description("Duración de envío y confirmación de un lote")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.outbox.relay.interval-ms:500}")
+    public void drenar() {
+        try {
+            // Mientras haya lotes llenos y el broker los confirme, se sigue drenando en esta pasada.
+            List<OutboxEvent> lote;
+            int confirmados;
+            do {
+                lote = outboxRepository.reclamarPendientes(tamanoLote, lease);
+                confirmados = lote.isEmpty() ? 0 : publicarLote(lote);
+            } while (lote.size() == tamanoLote && confirmados > 0);
+
+            actualizarMetricas();
+        } catch (Exception e) {
+            log.error("❌ Error drenando el outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envía el lote completo y luego espera las confirmaciones, así el lote paga un solo
+     * tiempo de ida y vuelta al broker en lugar de uno por evento.
+     */
+    private int publicarLote(List<OutboxEvent> lote) {
+        long inicio = System.nanoTime();
+        Map<OutboxEvent, CompletableFuture<Void>> confirmaciones = new LinkedHashMap<>();
+        List<String> confirmados = new ArrayList<>();
+        Map<String, Instant> reintentos = new LinkedHashMap<>();
+        List<String> agotados = new ArrayList<>();
+
+        for (OutboxEvent evento : lote) {
+            confirmaciones.put(evento, eventPublisher.publishAsync(evento.getRoutingKey(), evento.getPayload()));
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutConfirmMs);
+        Instant ahora = Instant.now();
+        confirmaciones.forEach((evento, confirmacion) -> {
+            if (esperarConfirmacion(evento.getId(), confirmacion, limite)) {
+                confirmados.add(evento.getId());
+            } else if (evento.getIntentos() + 1 >= maxIntentos) {
+                agotados.add(evento.getId());
+            } else {
+                reintentos.put(evento.getId(), ahora.plusMillis(espera(evento.getIntentos())));
+            }
+        });
+
+        outboxRepository.marcarPublicados(confirmados);
+        outboxRepository.reprogramar(reintentos);
+        outboxRepository.marcarFallidos(agotados);
+        publicados.increment(confirmados.size());
+        fallidos.increment(reintentos.size() + agotados.size());
+        descartados.increment(agotados.size());
+
+        if (!reintentos.isEmpty()) {
+            log.warn("⚠️ Outbox: {} de {} eventos sin confirmar, se reintentarán.", reintentos.size(), lote.size());
+        }
+        if (!agotados.isEmpty()) {
+            log.error("❌ Outbox: {} eventos agotaron los {} intentos y quedan FALLIDO: {}", agotados.size(), maxIntentos, agotados);
+        }
+        log.info("📤 Outbox: lote de {} eventos publicado ({} confirmados).", lote.size(), confirmados.size());
+        duracionLote.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return confirmados.size();
+    }
+
+    // Espera exponencial: reintento-inicial-ms, el doble en cada intento, hasta reintento-max-ms
+    private long espera(int intentosPrevios) {
+        long espera = reintentoInicialMs;
+        for (int i = 0; i < intentosPrevios && espera < reintentoMaxMs; i++) {
+            espera *= 2;
+        }
+        return Math.min(espera, reintentoMaxMs);
+    }
+
+    private boolean esperarConfirmacion(String id, CompletableFuture<Void> confirmacion, long limiteNanos) {
+        try {
+            long restante = Math.max(0, limiteNanos - System.nanoTime());
+            confirmacion.get(restante, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("⚠️ Evento {} del outbox no confirmado: {}", id, e.getCause().getMessage());
+            return false;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private void actualizarMetricas() {
+        pendientes.set(outboxRepository.contarPendientes());
+        lagSegundos.set(outboxRepository.fechaPendienteMasAntiguo()
+                .map(creado -> Math.max(0, Duration.between(creado, Instant.now()).toSeconds()))
+                .orElse(0L));
+    }
+}
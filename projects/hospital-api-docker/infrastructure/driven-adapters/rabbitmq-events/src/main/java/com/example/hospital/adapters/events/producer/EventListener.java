@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * 🧩 Listener que actúa como punto de entrada (adapter) para eventos de RabbitMQ.
  * <p>
@@ -22,23 +24,24 @@ public class EventListener {
 
     /**
      * Escucha los mensajes enviados a la cola hospital.events.queue.
-     * Cada mensaje recibido representa un evento CamillaLiberadaEvent.
+     * Los mensajes llegan en lotes (ver rabbitListenerContainerFactory); cada uno es un CamillaLiberadaEvent
+     * y el lote completo se aplica con una sola escritura masiva.
+     * Si falla, el lote no se confirma (ver reintentos y DLQ en rabbitListenerContainerFactory).
      */
     @RabbitListener(
             queues = RabbitMQConfig.QUEUE_NAME,
             containerFactory = "rabbitListenerContainerFactory"
     )
-    public void handleCamillaLiberada(CamillaLiberadaEvent event) {
-        log.info("📥 Evento recibido: {}", event);
+    public void handleCamillaLiberada(List<CamillaLiberadaEvent> eventos) {
+        log.info("📥 Lote de {} eventos recibido", eventos.size());
 
         try {
-            eventCamillaUseCase.procesarCamillaLiberada(
-                    event.getCamillaId(),
-                    event.getFechaLiberacion(),
-                    event.getOrigen()
-            );
-        } catch (Exception e) {
-            log.error("❌ Error procesando evento: {}", e.getMessage(), e);
+            eventCamillaUseCase.procesarCamillasLiberadas(eventos);
+        } catch (RuntimeException e) {
+            // Se relanza: el contenedor reintenta el lote y, si sigue fallando, lo envía a la DLQ.
+            // Reprocesar es seguro porque releaseAll solo libera camillas aún ocupadas por ese paciente.
+            log.error("❌ Error procesando lote de {} eventos: {}", eventos.size(), e.getMessage(), e);
+            throw e;
         }
     }
 }
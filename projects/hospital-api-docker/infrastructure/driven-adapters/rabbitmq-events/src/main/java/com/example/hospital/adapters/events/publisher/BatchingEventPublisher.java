@@ -0,0 +1,206 @@
+package com.example.hospital.adapters.events.publisher;
+
+import com.example.hospital.adapters.events.config.RabbitMQConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 📦 Publicador con lotes y confirmaciones asíncronas del broker.
+ *
+ * Los hilos que publican solo encolan el evento y reciben un CompletableFuture.
+ * Un único hilo agrupa los eventos en lotes acotados por tamaño (batch-size) y por tiempo
+ * (max-delay-ms), los envía por un mismo canal y completa cada futuro cuando llega su confirmación.
+ * El RabbitTemplate publica por su propia conexión (ver RabbitMQConfig), separada de la del listener.
+ *
+ * Métricas:
+ *  - hospital.events.publisher.lote: tamaño de cada lote enviado.
+ *  - hospital.events.publisher.confirmacion: latencia envío → confirmación.
+ *  - hospital.events.publisher.en_vuelo: mensajes enviados que esperan confirmación.
+ *  - hospital.events.publisher.cola: eventos encolados aún sin enviar.
+ */
+@Slf4j
+@Component
+public class BatchingEventPublisher implements SmartLifecycle {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BlockingQueue<EventoPendiente> cola;
+    private final int tamanoLote;
+    private final long esperaMaximaNanos;
+    private final long timeoutConfirmMs;
+
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final DistributionSummary tamanoLotes;
+    private final Timer latenciaConfirmacion;
+
+    private volatile boolean activo;
+    private Thread hiloEnvio;
+
+    public BatchingEventPublisher(RabbitTemplate rabbitTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${hospital.events.publisher.batch-size:50}") int tamanoLote,
+                                  @Value("${hospital.events.publisher.max-delay-ms:10}") long esperaMaximaMs,
+                                  @Value("${hospital.events.publisher.queue-capacity:10000}") int capacidadCola,
+                                  @Value("${hospital.events.publisher.confirm-timeout-ms:5000}") long timeoutConfirmMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.tamanoLote = tamanoLote;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.timeoutConfirmMs = timeoutConfirmMs;
+
+        this.tamanoLotes = DistributionSummary.builder("hospital.events.publisher.lote")
+                .description("Eventos enviados por lote")
+                .register(meterRegistry);
+        this.latenciaConfirmacion = Timer.builder("hospital.events.publisher.confirmacion")
+                .description("Latencia entre el envío y la confirmación del broker")
+                .register(meterRegistry);
+        Gauge.builder("hospital.events.publisher.en_vuelo", enVuelo, AtomicInteger::get)
+                .description("Mensajes enviados pendientes de confirmación")
+                .register(meterRegistry);
+        Gauge.builder("hospital.events.publisher.cola", cola, BlockingQueue::size)
+                .description("Eventos encolados pendientes de envío")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola el evento para el próximo lote. Si la cola está llena falla de inmediato (no bloquea al llamador).
+     */
+    public CompletableFuture<Void> enqueue(String routingKey, Object payload) {
+        EventoPendiente evento = new EventoPendiente(routingKey, payload, new CompletableFuture<>());
+        if (!activo || !cola.offer(evento)) {
+            evento.resultado().completeExceptionally(
+                    new AmqpException("Cola de publicación llena o detenida, evento descartado: " + routingKey));
+        }
+        return evento.resultado();
+    }
+
+    /**
+     * Envía un evento de inmediato (sin esperar a completar un lote), también con confirmación asíncrona.
+     */
+    public CompletableFuture<Void> sendNow(String routingKey, Object payload) {
+        EventoPendiente evento = new EventoPendiente(routingKey, payload, new CompletableFuture<>());
+        enviarLote(List.of(evento));
+        return evento.resultado();
+    }
+
+    private void ejecutar() {
+        List<EventoPendiente> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                EventoPendiente primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                long limite = System.nanoTime() + esperaMaximaNanos;
+                while (lote.size() < tamanoLote) {
+                    long restante = limite - System.nanoTime();
+                    EventoPendiente siguiente = restante > 0 ? cola.poll(restante, TimeUnit.NANOSECONDS) : cola.poll();
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+                enviarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("❌ Error enviando lote de eventos: {}", e.getMessage(), e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Envía todo el lote por un único canal; las confirmaciones llegan luego de forma asíncrona.
+     */
+    private void enviarLote(List<EventoPendiente> lote) {
+        tamanoLotes.record(lote.size());
+        int enviados = 0;
+        try {
+            enviados = rabbitTemplate.invoke(operaciones -> {
+                int n = 0;
+                for (EventoPendiente evento : lote) {
+                    CorrelationData correlacion = new CorrelationData(UUID.randomUUID().toString());
+                    esperarConfirmacion(evento, correlacion);
+                    operaciones.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, evento.routingKey(), evento.payload(), correlacion);
+                    n++;
+                }
+                return n;
+            });
+        } catch (Exception e) {
+            log.error("❌ Fallo al publicar lote de {} eventos: {}", lote.size(), e.getMessage());
+            lote.forEach(evento -> evento.resultado().completeExceptionally(e));
+        }
+        log.debug("📤 Lote de {} eventos enviado", enviados);
+    }
+
+    private void esperarConfirmacion(EventoPendiente evento, CorrelationData correlacion) {
+        long enviado = System.nanoTime();
+        enVuelo.incrementAndGet();
+        correlacion.getFuture()
+                .orTimeout(timeoutConfirmMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    enVuelo.decrementAndGet();
+                    latenciaConfirmacion.record(System.nanoTime() - enviado, TimeUnit.NANOSECONDS);
+                    if (error != null) {
+                        evento.resultado().completeExceptionally(error);
+                    } else if (confirm.isAck()) {
+                        evento.resultado().complete(null);
+                    } else {
+                        evento.resultado().completeExceptionally(
+                                new AmqpException("Broker rechazó el evento: " + confirm.getReason()));
+                    }
+                });
+    }
+
+    @Override
+    public void start() {
+        activo = true;
+        hiloEnvio = new Thread(this::ejecutar, "rabbit-batch-publisher");
+        hiloEnvio.setDaemon(true);
+        hiloEnvio.start();
+    }
+
+    /**
+     * Deja de aceptar eventos y envía lo que quede en la cola antes de cerrar.
+     */
+    @Override
+    public void stop() {
+        activo = false;
+        if (hiloEnvio != null) {
+            try {
+                hiloEnvio.join(timeoutConfirmMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+
+    private record EventoPendiente(String routingKey, Object payload, CompletableFuture<Void> resultado) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.hospital.adapters.events.config;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RabbitMQConfigTest {
+
+    private final RabbitMQConfig config = new RabbitMQConfig();
+
+    @Test
+    void laColaEnviaLosRechazadosALaDlq() {
+        Queue cola = config.queue();
+
+        assertThat(cola.getArguments())
+                .containsEntry("x-dead-letter-exchange", "")
+                .containsEntry("x-dead-letter-routing-key", RabbitMQConfig.DLQ_NAME);
+    }
+
+    @Test
+    void unLoteQueAgotaLosReintentosSeRechazaSinReencolar() throws Exception {
+        Channel canal = mock(Channel.class);
+        AtomicReference<Consumer> consumidor = new AtomicReference<>();
+        ConnectionFactory connectionFactory = conexionSimulada(canal, consumidor);
+
+        var factory = config.rabbitListenerContainerFactory(connectionFactory,
+                10, 2, 1, 1, 100, 3, 1, 5);
+        SimpleMessageListenerContainer contenedor = factory.createListenerContainer();
+        contenedor.setQueueNames(RabbitMQConfig.QUEUE_NAME);
+        AtomicInteger intentos = new AtomicInteger();
+        contenedor.setMessageListener((BatchMessageListener) mensajes -> {
+            intentos.incrementAndGet();
+            throw new IllegalStateException("mongo caído");
+        });
+        contenedor.afterPropertiesSet();
+        contenedor.start();
+        try {
+            verify(canal, timeout(5000)).basicConsume(anyString(), anyBoolean(), anyString(), anyBoolean(),
+                    anyBoolean(), anyMap(), any(Consumer.class));
+            entregar(consumidor.get(), 1);
+            entregar(consumidor.get(), 2);
+
+            // Rechazo del lote completo (hasta la etiqueta 2) sin reencolar: el broker lo pasa a la DLQ
+            verify(canal, timeout(5000)).basicNack(2L, true, false);
+            verify(canal, never()).basicAck(anyLong(), anyBoolean());
+            assertThat(intentos).hasValue(3);
+        } finally {
+            contenedor.stop();
+        }
+    }
+
+    private static ConnectionFactory conexionSimulada(Channel canal, AtomicReference<Consumer> consumidor)
+            throws Exception {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection conexion = mock(Connection.class);
+        when(connectionFactory.createConnection()).thenReturn(conexion);
+        when(conexion.isOpen()).thenReturn(true);
+        when(conexion.createChannel(anyBoolean())).thenReturn(canal);
+        when(canal.isOpen()).thenReturn(true);
+        when(canal.queueDeclarePassive(anyString())).thenReturn(mock(AMQP.Queue.DeclareOk.class));
+        doAnswer(invocacion -> {
+            consumidor.set(invocacion.getArgument(6));
+            consumidor.get().handleConsumeOk("ctag");
+            return "ctag";
+        }).when(canal).basicConsume(anyString(), anyBoolean(), anyString(), anyBoolean(), anyBoolean(),
+                anyMap(), any(Consumer.class));
+        doAnswer(invocacion -> null).when(canal).basicQos(anyInt(), eq(false));
+        return connectionFactory;
+    }
+
+    private static void entregar(Consumer consumidor, long etiqueta) throws Exception {
+        AMQP.BasicProperties propiedades = new AMQP.BasicProperties.Builder().contentType("application/json").build();
+        consumidor.handleDelivery("ctag", new Envelope(etiqueta, false, RabbitMQConfig.EXCHANGE_NAME, "hospital.camilla"),
+                propiedades, "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,30 @@
+package graphql.costo;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 🪪 Identifica al cliente de cada solicitud GraphQL (HTTP o WebSocket) para su presupuesto de costo.
+ * Se usa la dirección remota y no un encabezado del cliente: un encabezado se puede cambiar
+ * en cada solicitud para estrenar presupuesto. Detrás de un proxy, server.forward-headers-strategy
+ * hace que la dirección remota sea la del cliente original.
+ */
+@Component
+public class ClienteGraphQlInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CLIENTE = "hospital.graphql.cliente";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        InetSocketAddress remota = request.getRemoteAddress();
+        String cliente = remota != null ? remota.getHostString() : "desconocido";
+        request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(contexto -> contexto.put(CLIENTE, cliente)).build());
+        return chain.next(request);
+    }
+}
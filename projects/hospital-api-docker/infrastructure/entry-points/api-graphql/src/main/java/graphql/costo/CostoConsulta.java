@@ -0,0 +1,98 @@
+package graphql.costo;
+
+import com.example.hospital.utils.PaginacionUtils;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * 🧮 Costo estimado de una consulta GraphQL, calculado antes de ejecutarla (sin ir a Mongo).
+ *
+ * Cada campo cuesta 1 más el costo de sus hijos multiplicado por cuántas veces se resuelven:
+ *  - Con argumento "first": ese tamaño de página (normalizado igual que en los casos de uso).
+ *  - Lista sin "first" (ej: todasLasCamillas): "tamanioLista" elementos estimados.
+ *  - La lista "edges" de una conexión ya quedó multiplicada por el "first" del campo padre.
+ * Así todasLasCamillas { paciente { ... } } cuesta del orden de tamanioLista veces lo que cuesta un paciente.
+ *
+ * La profundidad es el nivel de anidamiento más profundo. Los campos de introspección (__schema, __typename)
+ * no cuentan: graphql-java ya acota la introspección por su cuenta.
+ */
+public record CostoConsulta(long costo, int profundidad) {
+
+    public static CostoConsulta de(ExecutableNormalizedOperation operacion, GraphQLSchema schema, int tamanioLista) {
+        long costo = 0;
+        int profundidad = 0;
+        for (ExecutableNormalizedField campo : operacion.getTopLevelFields()) {
+            if (esIntrospeccion(campo)) {
+                continue;
+            }
+            costo = sumar(costo, costo(campo, schema, tamanioLista, null));
+            profundidad = Math.max(profundidad, profundidad(campo));
+        }
+        return new CostoConsulta(costo, profundidad);
+    }
+
+    /**
+     * @param paginaDelPadre tamaño de página de la conexión padre (se aplica a su lista edges), o null
+     */
+    private static long costo(ExecutableNormalizedField campo, GraphQLSchema schema, int tamanioLista, Integer paginaDelPadre) {
+        GraphQLFieldDefinition definicion = campo.getFieldDefinitions(schema).get(0);
+        Integer pagina = tamanioPagina(campo, definicion);
+
+        long veces = 1;
+        Integer paginaHijos = null;
+        if (GraphQLTypeUtil.unwrapNonNull(definicion.getType()) instanceof GraphQLList) {
+            veces = pagina != null ? pagina : paginaDelPadre != null ? paginaDelPadre : tamanioLista;
+        } else if (pagina != null) {
+            paginaHijos = pagina;
+        }
+
+        long hijos = 0;
+        for (ExecutableNormalizedField hijo : campo.getChildren()) {
+            if (!esIntrospeccion(hijo)) {
+                hijos = sumar(hijos, costo(hijo, schema, tamanioLista, paginaHijos));
+            }
+        }
+        return sumar(1, multiplicar(veces, hijos));
+    }
+
+    // null si el campo no recibe "first"; sin valor se usa el tamaño de página por defecto
+    private static Integer tamanioPagina(ExecutableNormalizedField campo, GraphQLFieldDefinition definicion) {
+        if (definicion.getArgument("first") == null) {
+            return null;
+        }
+        Object first = campo.getResolvedArguments().get("first");
+        return PaginacionUtils.normalizarLimite(first instanceof Integer limite ? limite : null);
+    }
+
+    private static int profundidad(ExecutableNormalizedField campo) {
+        int hijos = 0;
+        for (ExecutableNormalizedField hijo : campo.getChildren()) {
+            if (!esIntrospeccion(hijo)) {
+                hijos = Math.max(hijos, profundidad(hijo));
+            }
+        }
+        return 1 + hijos;
+    }
+
+    private static boolean esIntrospeccion(ExecutableNormalizedField campo) {
+        return campo.getName().startsWith("__");
+    }
+
+    // Una consulta absurda no debe desbordar el long y parecer barata
+    private static long sumar(long a, long b) {
+        long suma = a + b;
+        return suma < 0 ? Long.MAX_VALUE : suma;
+    }
+
+    private static long multiplicar(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package graphql.costo;
+
+import graphql.ExecutionResult;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.execution.ErrorType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🚦 Límites de costo para /graphql, aplicados antes de ejecutar cada operación (ver CostoConsulta).
+ * - Profundidad mayor que maxProfundidad: se rechaza (400).
+ * - Costo estimado mayor que maxCosto: se rechaza (400).
+ * - Costo que no cabe en el presupuesto del cliente en la ventana actual: se rechaza (429).
+ * Una consulta rechazada no llega a los resolvers, así que no consume conexiones de Mongo.
+ * Por HTTP, CostoGraphQlHttpHandler responde con ese código; el error lleva además status, code y "limite".
+ *
+ * Se calcula por ejecución (no por documento) porque el costo depende de variables como "first".
+ *
+ * Métricas:
+ *  - hospital.graphql.consulta.costo: costo estimado de cada operación (también de las rechazadas).
+ *  - hospital.graphql.consulta.rechazadas{motivo=profundidad|costo|presupuesto}.
+ *  - hospital.graphql.presupuesto.clientes: clientes con presupuesto en seguimiento.
+ */
+@Slf4j
+public class CostoConsultaInstrumentation extends SimplePerformantInstrumentation {
+
+    // Extensión del error con el límite superado: profundidad, costo o presupuesto
+    public static final String LIMITE = "limite";
+
+    private final long maxCosto;
+    private final int maxProfundidad;
+    private final int tamanioLista;
+    private final PresupuestoClientes presupuesto;
+    private final DistributionSummary costos;
+    private final Counter porProfundidad;
+    private final Counter porCosto;
+    private final Counter porPresupuesto;
+
+    public CostoConsultaInstrumentation(long maxCosto,
+                                        int maxProfundidad,
+                                        int tamanioLista,
+                                        PresupuestoClientes presupuesto,
+                                        MeterRegistry meterRegistry) {
+        this.maxCosto = maxCosto;
+        this.maxProfundidad = maxProfundidad;
+        this.tamanioLista = tamanioLista;
+        this.presupuesto = presupuesto;
+        this.costos = DistributionSummary.builder("hospital.graphql.consulta.costo")
+                .description("Costo estimado de las operaciones GraphQL")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.porProfundidad = rechazadas(meterRegistry, "profundidad");
+        this.porCosto = rechazadas(meterRegistry, "costo");
+        this.porPresupuesto = rechazadas(meterRegistry, "presupuesto");
+        Gauge.builder("hospital.graphql.presupuesto.clientes", presupuesto, PresupuestoClientes::clientes)
+                .description("Clientes GraphQL con presupuesto de costo en seguimiento")
+                .register(meterRegistry);
+    }
+
+    private static Counter rechazadas(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("hospital.graphql.consulta.rechazadas")
+                .description("Operaciones GraphQL rechazadas por los límites de costo")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext contexto = parameters.getExecutionContext();
+        CostoConsulta consulta = CostoConsulta.de(contexto.getNormalizedQueryTree().get(),
+                contexto.getGraphQLSchema(), tamanioLista);
+        costos.record(consulta.costo());
+
+        if (consulta.profundidad() > maxProfundidad) {
+            porProfundidad.increment();
+            throw rechazo("La consulta tiene profundidad " + consulta.profundidad()
+                    + " y el máximo permitido es " + maxProfundidad, "profundidad", "BAD_REQUEST", "400", consulta);
+        }
+        if (consulta.costo() > maxCosto) {
+            porCosto.increment();
+            throw rechazo("El costo estimado de la consulta es " + consulta.costo()
+                    + " y el máximo permitido es " + maxCosto, "costo", "BAD_REQUEST", "400", consulta);
+        }
+
+        String cliente = contexto.getGraphQLContext().getOrDefault(ClienteGraphQlInterceptor.CLIENTE, "desconocido");
+        if (!presupuesto.consumir(cliente, consulta.costo())) {
+            porPresupuesto.increment();
+            throw rechazo("Se agotó el presupuesto de costo del cliente (" + presupuesto.presupuesto()
+                    + " por ventana); reintente más tarde", "presupuesto", "TOO_MANY_REQUESTS", "429", consulta);
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private static AbortExecutionException rechazo(String detalle, String limite, String status, String code,
+                                                   CostoConsulta consulta) {
+        log.warn("🚦 [GraphQL] Consulta rechazada: {}", detalle);
+        // Mismas extensiones que los errores de negocio (GraphQLExceptionHandler), más el costo calculado
+        return new AbortExecutionException(List.of(GraphqlErrorBuilder.newError()
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(detalle)
+                .extensions(Map.of(
+                        "status", status,
+                        "code", code,
+                        LIMITE, limite,
+                        "costo", consulta.costo(),
+                        "profundidad", consulta.profundidad()))
+                .build()));
+    }
+}
@@ -0,0 +1,39 @@
+package graphql.costo;
+
+import org.springframework.graphql.ResponseError;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.webmvc.GraphQlHttpHandler;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/**
+ * 🚦 Handler HTTP de /graphql que responde con el código HTTP de los límites de costo (400 / 429)
+ * cuando CostoConsultaInstrumentation rechaza la operación; el cuerpo sigue siendo el error GraphQL.
+ * Cualquier otra respuesta conserva el código que elige Spring (200, o 400 con graphql-response+json).
+ *
+ * Por WebSocket no hay código HTTP: el cliente ve el mismo error con status y code en las extensiones.
+ */
+public class CostoGraphQlHttpHandler extends GraphQlHttpHandler {
+
+    public CostoGraphQlHttpHandler(WebGraphQlHandler graphQlHandler) {
+        super(graphQlHandler);
+    }
+
+    @Override
+    protected HttpStatus selectResponseStatus(WebGraphQlResponse response, MediaType responseMediaType) {
+        // Una operación rechazada no llega a ejecutarse: no hay data y el error lleva la extensión "limite"
+        if (!response.getExecutionResult().isDataPresent()) {
+            for (ResponseError error : response.getErrors()) {
+                if (error.getExtensions().get(CostoConsultaInstrumentation.LIMITE) != null
+                        && error.getExtensions().get("code") instanceof String code) {
+                    HttpStatus status = HttpStatus.resolve(Integer.parseInt(code));
+                    if (status != null) {
+                        return status;
+                    }
+                }
+            }
+        }
+        return super.selectResponseStatus(response, responseMediaType);
+    }
+}
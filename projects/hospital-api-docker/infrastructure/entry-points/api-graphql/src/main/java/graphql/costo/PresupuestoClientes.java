@@ -0,0 +1,88 @@
+package graphql.costo;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ⏳ Presupuesto de costo GraphQL por cliente en una ventana deslizante (ej: 20000 por minuto).
+ *
+ * La ventana se divide en RANURAS intervalos: cada cliente guarda solo el costo acumulado por intervalo,
+ * así la memoria por cliente es fija sin importar cuántas consultas haga. Una consulta que no cabe
+ * en lo que queda del presupuesto se rechaza y no se descuenta.
+ *
+ * Se siguen como máximo maxClientes: al superarlo se descarta el que lleva más tiempo sin consultar (LRU),
+ * sin recorrer los demás. Cada consulta toca solo su cliente, así el bloqueo dura lo mismo con 10 o 10000.
+ */
+public class PresupuestoClientes {
+
+    private static final int RANURAS = 10;
+    private static final int MAX_CLIENTES = 10_000;
+
+    private final long presupuesto;
+    private final long nanosPorRanura;
+    // accessOrder = true: el recorrido va del cliente menos reciente al más reciente
+    private final LinkedHashMap<String, Ventana> ventanas;
+
+    public PresupuestoClientes(long presupuesto, Duration ventana) {
+        this(presupuesto, ventana, MAX_CLIENTES);
+    }
+
+    public PresupuestoClientes(long presupuesto, Duration ventana, int maxClientes) {
+        this.presupuesto = presupuesto;
+        this.nanosPorRanura = Math.max(1, ventana.toNanos() / RANURAS);
+        this.ventanas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ventana> menosReciente) {
+                return size() > maxClientes;
+            }
+        };
+    }
+
+    /**
+     * Descuenta "costo" del presupuesto del cliente si cabe. Retorna false (sin descontar) si no cabe.
+     */
+    public synchronized boolean consumir(String cliente, long costo) {
+        long ranura = Math.floorDiv(System.nanoTime(), nanosPorRanura);
+        Ventana ventana = ventanas.computeIfAbsent(cliente, c -> new Ventana());
+        if (costo > presupuesto - ventana.total(ranura)) {
+            return false;
+        }
+        ventana.agregar(ranura, costo);
+        return true;
+    }
+
+    public long presupuesto() {
+        return presupuesto;
+    }
+
+    public synchronized int clientes() {
+        return ventanas.size();
+    }
+
+    // Solo se usa dentro de los métodos sincronizados
+    private static final class Ventana {
+
+        private final long[] ranuras = new long[RANURAS];
+        private final long[] costos = new long[RANURAS];
+
+        long total(long ranuraActual) {
+            long total = 0;
+            for (int i = 0; i < RANURAS; i++) {
+                if (ranuras[i] > ranuraActual - RANURAS) {
+                    total += costos[i];
+                }
+            }
+            return total;
+        }
+
+        void agregar(long ranuraActual, long costo) {
+            int i = (int) Math.floorMod(ranuraActual, (long) RANURAS);
+            if (ranuras[i] != ranuraActual) {
+                ranuras[i] = ranuraActual;
+                costos[i] = 0;
+            }
+            costos[i] += costo;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package graphql.documento;
+
+import com.example.hospital.utils.CacheTtl;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 📑 Caché de documentos GraphQL ya parseados y validados, por hash SHA-256 del texto de la consulta.
+ *
+ * - Consulta normal: se calcula el hash del texto; si ya está en caché se omiten el parseo y la validación
+ *   contra schema.graphqls / types.graphqls.
+ * - Consulta persistida (protocolo APQ de Apollo): el cliente envía solo
+ *   extensions.persistedQuery.sha256Hash. Si el hash no está en caché se responde PersistedQueryNotFound
+ *   y el cliente reintenta con el texto y el hash, que quedan registrados para las siguientes solicitudes.
+ *
+ * Solo se guardan los documentos válidos: una consulta con errores se vuelve a validar en cada solicitud.
+ * La caché es acotada (LRU) y en memoria, por nodo.
+ */
+public class DocumentosPersistidos extends ApolloPersistedQuerySupport {
+
+    public DocumentosPersistidos(CacheTtl<String, PreparsedDocumentEntry> documentos) {
+        super(new Cache(documentos));
+    }
+
+    /**
+     * El hash enviado por el cliente (APQ) o, si no lo envía, el del texto de la consulta.
+     */
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> hashCliente = super.getPersistedQueryId(executionInput);
+        if (hashCliente.isPresent()) {
+            return hashCliente;
+        }
+        return Optional.of(sha256(executionInput.getQuery()));
+    }
+
+    static String sha256(String texto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record Cache(CacheTtl<String, PreparsedDocumentEntry> documentos) implements PersistedQueryCache {
+
+        @Override
+        public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object id,
+                                                                                        ExecutionInput executionInput,
+                                                                                        PersistedQueryCacheMiss alFallar) {
+            PreparsedDocumentEntry[] conErrores = new PreparsedDocumentEntry[1];
+            Optional<PreparsedDocumentEntry> documento = documentos.obtener(id.toString(), hash -> {
+                // Parsea y valida; sin texto (solo el hash) lanza PersistedQueryNotFound
+                PreparsedDocumentEntry entrada = alFallar.apply(texto(executionInput));
+                if (entrada.hasErrors()) {
+                    conErrores[0] = entrada;
+                    return Optional.empty();
+                }
+                return Optional.of(entrada);
+            });
+            return CompletableFuture.completedFuture(documento.orElse(conErrores[0]));
+        }
+
+        private static String texto(ExecutionInput executionInput) {
+            String query = executionInput.getQuery();
+            return PERSISTED_QUERY_MARKER.equals(query) ? null : query;
+        }
+    }
+}
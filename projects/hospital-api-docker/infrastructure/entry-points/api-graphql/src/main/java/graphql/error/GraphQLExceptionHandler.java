@@ -0,0 +1,51 @@
+package graphql.error;
+
+import com.example.hospital.exception.BusinessException;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 🚨 Traduce las excepciones de negocio a errores GraphQL.
+ * El código HTTP equivalente (ej: "409") viaja en las extensiones del error.
+ */
+@Slf4j
+@Component
+public class GraphQLExceptionHandler extends DataFetcherExceptionResolverAdapter {
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (!(ex instanceof BusinessException businessException)) {
+            return null;
+        }
+
+        log.warn("⚠️ [GraphQL] Error de negocio en {}: {}", env.getField().getName(), businessException.getDetail());
+
+        Map<String, Object> extensions = new HashMap<>();
+        extensions.put("status", businessException.getStatus());
+        extensions.put("code", businessException.getCode());
+
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(tipoError(businessException.getCode()))
+                .message(businessException.getDetail())
+                .extensions(extensions)
+                .build();
+    }
+
+    private ErrorType tipoError(String code) {
+        if ("404".equals(code)) {
+            return ErrorType.NOT_FOUND;
+        }
+        if (code != null && code.startsWith("5")) {
+            return ErrorType.INTERNAL_ERROR;
+        }
+        return ErrorType.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,145 @@
+package graphql.metricas;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.execution.SelfDescribingDataFetcher;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ⏱️ Tiempos por campo y por resolver de /graphql, y detección de N+1 por solicitud.
+ *
+ * - Cada data fetcher no trivial (los de los resolvers: @QueryMapping, @BatchMapping...) se mide hasta que su
+ *   valor está listo, incluso si es asíncrono. Los triviales (leer una propiedad del objeto) solo se cuentan.
+ * - N+1: un mismo fetcher no trivial invocado más de umbralNMasUno veces en una solicitud. Los que cargan
+ *   por DataLoader (@BatchMapping) no cuentan: se invocan por elemento pero se resuelven en un solo lote.
+ *
+ * Métricas:
+ *  - hospital.graphql.campo.latencia{campo="Query.todasLasCamillas", resolver="CamillaQueryResolver"} (histograma).
+ *  - hospital.graphql.consulta.invocaciones: data fetchers invocados por solicitud (triviales incluidos).
+ *  - hospital.graphql.campo.n-mas-uno{campo}: solicitudes en las que el campo superó el umbral.
+ */
+@Slf4j
+public class TiemposCamposInstrumentation extends SimplePerformantInstrumentation {
+
+    private final int umbralNMasUno;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary invocaciones;
+    // Un Timer por campo del esquema: se crean una vez y se reutilizan en cada solicitud
+    private final Map<String, Timer> latencias = new ConcurrentHashMap<>();
+
+    public TiemposCamposInstrumentation(int umbralNMasUno, MeterRegistry meterRegistry) {
+        this.umbralNMasUno = umbralNMasUno;
+        this.meterRegistry = meterRegistry;
+        this.invocaciones = DistributionSummary.builder("hospital.graphql.consulta.invocaciones")
+                .description("Data fetchers invocados por solicitud GraphQL")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Conteos de una solicitud; la comparten los hilos que resuelven sus campos.
+     */
+    private static final class Solicitud implements InstrumentationState {
+        private final LongAdder total = new LongAdder();
+        private final Map<String, AtomicInteger> porCampo = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new Solicitud();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        Solicitud solicitud = (Solicitud) state;
+        return SimpleInstrumentationContext.whenCompleted((resultado, error) -> {
+            invocaciones.record(solicitud.total.sum());
+            solicitud.porCampo.forEach((campo, veces) -> {
+                if (veces.get() > umbralNMasUno) {
+                    Counter.builder("hospital.graphql.campo.n-mas-uno")
+                            .description("Solicitudes en las que un resolver se invocó más veces que el umbral")
+                            .tag("campo", campo)
+                            .register(meterRegistry)
+                            .increment();
+                    log.warn("🐌 [GraphQL] Posible N+1: {} se resolvió {} veces en la operación {}",
+                            campo, veces.get(), parameters.getOperation() != null ? parameters.getOperation() : "(anónima)");
+                }
+            });
+        });
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        Solicitud solicitud = (Solicitud) state;
+        solicitud.total.increment();
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+
+        ExecutionStepInfo paso = parameters.getExecutionStepInfo();
+        String campo = paso.getObjectType().getName() + "." + paso.getFieldDefinition().getName();
+        if (!usaDataLoader(dataFetcher)) {
+            solicitud.porCampo.computeIfAbsent(campo, c -> new AtomicInteger()).incrementAndGet();
+        }
+        Timer latencia = latencias.computeIfAbsent(campo, c -> Timer.builder("hospital.graphql.campo.latencia")
+                .description("Tiempo de resolución de un campo GraphQL (resolver)")
+                .tag("campo", c)
+                .tag("resolver", resolver(dataFetcher))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        return entorno -> {
+            long inicio = System.nanoTime();
+            Object valor;
+            try {
+                valor = dataFetcher.get(entorno);
+            } catch (Exception e) {
+                latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            if (valor instanceof CompletableFuture<?> pendiente) {
+                return pendiente.whenComplete((v, error) ->
+                        latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS));
+            }
+            latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return valor;
+        };
+    }
+
+    private static boolean usaDataLoader(DataFetcher<?> dataFetcher) {
+        return dataFetcher instanceof SelfDescribingDataFetcher<?> descrito && descrito.usesDataLoader();
+    }
+
+    // "graphql.resolver.CamillaQueryResolver#todasLasCamillas[1 args]" -> "CamillaQueryResolver"
+    private static String resolver(DataFetcher<?> dataFetcher) {
+        if (!(dataFetcher instanceof SelfDescribingDataFetcher<?> descrito)) {
+            return dataFetcher.getClass().getSimpleName();
+        }
+        String descripcion = descrito.getDescription();
+        int metodo = descripcion.indexOf('#');
+        String clase = metodo >= 0 ? descripcion.substring(0, metodo) : descripcion;
+        return clase.substring(clase.lastIndexOf('.') + 1);
+    }
+}
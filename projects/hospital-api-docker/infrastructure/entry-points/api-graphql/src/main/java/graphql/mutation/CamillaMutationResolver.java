@@ -1,13 +1,20 @@
 package graphql.mutation;
 
 import com.example.hospital.model.Camilla;
+import com.example.hospital.usecase.camilla.AsignarPacientesLoteUseCase;
 import com.example.hospital.usecase.camilla.CamillaUseCase;
+import com.example.hospital.usecase.camilla.result.AsignacionPaciente;
+import com.example.hospital.usecase.camilla.result.ResultadoAsignacion;
+import com.example.hospital.usecase.idempotencia.IdempotenciaStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * 🎯 Resolver GraphQL para Mutations relacionadas con Camillas.
  * Gestiona la asignación, creación y liberación de camillas.
@@ -18,6 +25,8 @@ import org.springframework.stereotype.Controller;
 public class CamillaMutationResolver {
 
     private final CamillaUseCase camillaUseCase;
+    private final AsignarPacientesLoteUseCase asignarPacientesLoteUseCase;
+    private final IdempotenciaStore idempotenciaStore;
 
     /**
      * 🛠️ CREAR CAMILLA =============================
@@ -48,9 +57,10 @@ public class CamillaMutationResolver {
     /**
      * ‍♂️ ASIGNAR PACIENTE =============================
      * Asigna una camilla a un paciente hospitalizado.
+     * Con idempotencyKey, un reintento con la misma clave devuelve la camilla de la primera asignación.
      * Ejemplo (GraphQL):
      * mutation {
-     *   asignarPaciente(idCamilla: "68e84d03...", idPaciente: "68e8475...") {
+     *   asignarPaciente(idCamilla: "68e84d03...", idPaciente: "68e8475...", idempotencyKey: "b7c1...") {
      *     id
      *     estado
      *     habitacion
@@ -65,17 +75,50 @@ public class CamillaMutationResolver {
     @MutationMapping
     public Camilla asignarPaciente(
             @Argument String idCamilla,
-            @Argument String idPaciente
+            @Argument String idPaciente,
+            @Argument String idempotencyKey
     ) {
         log.info("🩺 [GraphQL] Mutation → asignarPaciente(camilla={}, paciente={})", idCamilla, idPaciente);
-        Camilla actualizada = camillaUseCase.asignarPaciente(idCamilla, idPaciente);
+        Camilla actualizada = idempotenciaStore.ejecutar("asignarPaciente", idempotencyKey, idCamilla + "|" + idPaciente,
+                () -> camillaUseCase.asignarPaciente(idCamilla, idPaciente));
         log.info("✅ Paciente asignado correctamente a camilla {}", idCamilla);
         return actualizada;
     }
 
+    /**
+     * 🚨 ASIGNAR PACIENTES EN LOTE =============================
+     * Asigna muchos pacientes a camillas en una sola solicitud; retorna un resultado por par.
+     * Con idempotencyKey, un reintento con la misma clave devuelve los resultados de la primera ejecución.
+     * Ejemplo (GraphQL):
+     * mutation {
+     *   asignarPacientesLote(asignaciones: [
+     *     { idCamilla: "68e84d03...", idPaciente: "68e8475..." },
+     *     { idCamilla: "68e84d04...", idPaciente: "68e8476..." }
+     *   ]) {
+     *     idCamilla
+     *     exito
+     *     errorCodigo
+     *     errorDetalle
+     *   }
+     * }
+     */
+    @MutationMapping
+    public List<ResultadoAsignacion> asignarPacientesLote(
+            @Argument List<AsignacionPaciente> asignaciones,
+            @Argument String idempotencyKey
+    ) {
+        log.info("🚨 [GraphQL] Mutation → asignarPacientesLote({} pares)", asignaciones.size());
+        String huella = asignaciones.stream()
+                .map(a -> a.idCamilla() + "|" + a.idPaciente())
+                .collect(Collectors.joining(","));
+        return idempotenciaStore.ejecutar("asignarPacientesLote", idempotencyKey, huella,
+                () -> asignarPacientesLoteUseCase.asignarPacientes(asignaciones));
+    }
+
     /**
      *  LIBERAR CAMILLA =============================
      * Libera una camilla cuando un paciente es dado de alta.
+     * Con idempotencyKey, un reintento con la misma clave devuelve la camilla ya liberada.
      * Ejemplo (GraphQL):
      * mutation {
      *   liberarCamilla(idCamilla: "68e84d03...", fechaFin: "2025-10-10") {
@@ -89,10 +132,12 @@ public class CamillaMutationResolver {
     @MutationMapping
     public Camilla liberarCamilla(
             @Argument String idCamilla,
-            @Argument String fechaFin
+            @Argument String fechaFin,
+            @Argument String idempotencyKey
     ) {
         log.info("🚪 [GraphQL] Mutation → liberarCamilla(camilla={}, fechaFin={})", idCamilla, fechaFin);
-        Camilla liberada = camillaUseCase.liberarCamilla(idCamilla, fechaFin);
+        Camilla liberada = idempotenciaStore.ejecutar("liberarCamilla", idempotencyKey, idCamilla + "|" + fechaFin,
+                () -> camillaUseCase.liberarCamilla(idCamilla, fechaFin));
         log.info("✅ Camilla liberada correctamente: {}", idCamilla);
         return liberada;
     }
@@ -1,7 +1,12 @@
 package graphql.mutation;
 
  import com.example.hospital.model.Paciente;
+ import com.example.hospital.usecase.idempotencia.IdempotenciaStore;
+ import com.example.hospital.usecase.paciente.AltaAsincronaUseCase;
+ import com.example.hospital.usecase.paciente.DarAltaLoteUseCase;
  import com.example.hospital.usecase.paciente.PacienteUseCase;
+ import com.example.hospital.usecase.paciente.result.AltaLoteResult;
+ import com.example.hospital.usecase.paciente.result.OperacionAlta;
  import lombok.RequiredArgsConstructor;
  import lombok.extern.slf4j.Slf4j;
  import org.slf4j.Logger;
@@ -10,6 +15,8 @@ import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 
 /**
  * 🎯 Resolver GraphQL para Mutations relacionadas con Pacientes.
@@ -21,6 +28,9 @@ import org.springframework.stereotype.Controller;
 public class PacienteMutationResolver {
 
     private final PacienteUseCase pacienteUseCase;
+    private final AltaAsincronaUseCase altaAsincronaUseCase;
+    private final DarAltaLoteUseCase darAltaLoteUseCase;
+    private final IdempotenciaStore idempotenciaStore;
 
     // =============================
     // 🏥 CREAR PACIENTE
@@ -80,30 +90,57 @@ public class PacienteMutationResolver {
     // =============================
 
     /**
-     * Actualiza la información de un paciente existente.
+     * Actualiza solo los campos enviados con una única escritura en Mongo.
+     * Si se envía "version" y el paciente cambió desde esa versión, responde CONFLICT (409).
      * Ejemplo (GraphQL):
      * mutation {
      *   actualizarPaciente(
      *     id: "68e847552d4447a1dc59fb76",
      *     alergias: "Ninguna",
-     *     eps: "Nueva EPS"
+     *     eps: "Nueva EPS",
+     *     version: 3
      *   ) {
      *     id
      *     primerNombre
      *     alergias
      *     eps
+     *     version
      *   }
      * }
      */
     @MutationMapping
     public Paciente actualizarPaciente(
             @Argument String id,
+            @Argument String primerNombre,
+            @Argument String segundoNombre,
+            @Argument String primerApellido,
+            @Argument String segundoApellido,
+            @Argument String documentoIdentidad,
+            @Argument String tipoSangre,
+            @Argument String genero,
             @Argument String alergias,
+            @Argument String estado,
+            @Argument String fechaAlta,
+            @Argument String numeroHistoriaClinica,
             @Argument String eps,
-            @Argument String estado
+            @Argument Long version
     ) {
         log.info("🧩 [GraphQL] Mutation → actualizarPaciente(id={})", id);
-        Paciente actualizado = pacienteUseCase.actualizarPaciente(id, alergias, eps, estado);
+        Paciente cambios = new Paciente();
+        cambios.setPrimerNombre(primerNombre);
+        cambios.setSegundoNombre(segundoNombre);
+        cambios.setPrimerApellido(primerApellido);
+        cambios.setSegundoApellido(segundoApellido);
+        cambios.setDocumentoIdentidad(documentoIdentidad);
+        cambios.setTipoSangre(tipoSangre);
+        cambios.setGenero(genero);
+        cambios.setAlergias(alergias);
+        cambios.setEstado(estado);
+        cambios.setFechaAlta(fechaAlta);
+        cambios.setNumeroHistoriaClinica(numeroHistoriaClinica);
+        cambios.setEps(eps);
+
+        Paciente actualizado = pacienteUseCase.actualizarPaciente(id, cambios, version);
         log.info("✅ Paciente actualizado correctamente: {}", id);
         return actualizado;
     }
@@ -126,4 +163,44 @@ public class PacienteMutationResolver {
         log.info("✅ Paciente eliminado correctamente: {}", id);
         return "✅ Paciente eliminado exitosamente con ID: " + id;
     }
+
+    // =============================
+    // 🚪 ALTA ASÍNCRONA
+    // =============================
+
+    /**
+     * Encola el alta del paciente; el resultado se consulta con la query operacionAlta(id).
+     * Con idempotencyKey, un reintento con la misma clave devuelve la misma operación.
+     * Ejemplo (GraphQL):
+     * mutation {
+     *   darAltaAsincrona(idPaciente: "68e847552d4447a1dc59fb76") { id estado }
+     * }
+     */
+    @MutationMapping
+    public OperacionAlta darAltaAsincrona(@Argument String idPaciente, @Argument String idempotencyKey) {
+        log.info("🚪 [GraphQL] Mutation → darAltaAsincrona(idPaciente={})", idPaciente);
+        OperacionAlta operacion = idempotenciaStore.ejecutar("altaAsincrona", idempotencyKey, idPaciente,
+                () -> altaAsincronaUseCase.solicitarAlta(idPaciente));
+        return altaAsincronaUseCase.consultarOperacion(operacion.id()).orElse(operacion);
+    }
+
+    // =============================
+    // 🚑 ALTA EN LOTE
+    // =============================
+
+    /**
+     * Da de alta a varios pacientes a la vez; retorna un resultado por paciente.
+     * Ejemplo (GraphQL):
+     * mutation {
+     *   darAltaLote(ids: ["68e847552d4447a1dc59fb76", "68e847552d4447a1dc59fb77"]) {
+     *     exitosas fallidas resultados { pacienteId exito errorCodigo errorDetalle }
+     *   }
+     * }
+     */
+    @MutationMapping
+    public AltaLoteResult darAltaLote(@Argument List<String> ids, @Argument String idempotencyKey) {
+        log.info("🚑 [GraphQL] Mutation → darAltaLote({} pacientes)", ids.size());
+        return idempotenciaStore.ejecutar("altaLote", idempotencyKey, String.join(",", ids),
+                () -> darAltaLoteUseCase.darAlta(ids));
+    }
 }
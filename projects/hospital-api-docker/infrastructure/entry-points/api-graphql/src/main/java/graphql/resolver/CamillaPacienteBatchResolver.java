@@ -0,0 +1,58 @@
+package graphql.resolver;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.model.Paciente;
+import com.example.hospital.usecase.paciente.PacienteUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 🔗 Resuelve el campo paciente de CamillaDocument en lote (DataLoader).
+ * Todas las camillas de una consulta se resuelven con un solo findAllById,
+ * sin importar cuántas camillas se devuelvan.
+ * Las consultas que solo piden pacienteResumen no pasan por aquí: el resumen viene embebido en la camilla.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class CamillaPacienteBatchResolver {
+
+    private final PacienteUseCase pacienteUseCase;
+
+    @BatchMapping(typeName = "CamillaDocument", field = "paciente")
+    public Map<Camilla, Paciente> paciente(List<Camilla> camillas) {
+        // Las camillas devueltas por asignarPaciente ya traen el paciente completo
+        Set<String> ids = new LinkedHashSet<>();
+        for (Camilla camilla : camillas) {
+            if (camilla.getPaciente() == null && camilla.getPacienteId() != null) {
+                ids.add(camilla.getPacienteId());
+            }
+        }
+
+        Map<String, Paciente> pacientesPorId = pacienteUseCase.obtenerPacientesPorIds(ids)
+                .stream()
+                .collect(Collectors.toMap(Paciente::getId, Function.identity(), (a, b) -> a));
+        log.info("📦 [GraphQL] Lote paciente: {} camillas, {} pacientes consultados", camillas.size(), ids.size());
+
+        Map<Camilla, Paciente> resultado = new HashMap<>();
+        for (Camilla camilla : camillas) {
+            Paciente paciente = camilla.getPaciente() != null
+                    ? camilla.getPaciente()
+                    : pacientesPorId.get(camilla.getPacienteId());
+            if (paciente != null) {
+                resultado.put(camilla, paciente);
+            }
+        }
+        return resultado;
+    }
+}
@@ -3,14 +3,17 @@ package graphql.resolver;
 
 import com.example.hospital.model.Camilla;
 import com.example.hospital.usecase.camilla.CamillaUseCase;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Resolver GraphQL para consultas de camillas (lecturas).
@@ -50,13 +53,28 @@ public class CamillaQueryResolver {
         }
     }
 
+    /**
+     * Retorna las camillas por páginas (cursor opaco "after"), opcionalmente filtradas por estado.
+     */
+    @QueryMapping
+    public Conexion<Camilla> camillasPaginadas(@Argument String after, @Argument Integer first, @Argument String estado) {
+        log.info("📥 Query GraphQL: camillasPaginadas(after={}, first={}, estado={})", after, first, estado);
+        return Conexion.desde(camillaUseCase.obtenerCamillasPaginadas(after, first, estado));
+    }
+
     /**
      * Retorna todas las camillas sin importar su estado.
+     * Solo se leen de Mongo los campos seleccionados; "paciente" solo necesita el id del resumen embebido
+     * (el paciente completo lo carga CamillaPacienteBatchResolver).
      */
     @QueryMapping
-    public List<Camilla> todasLasCamillas() {
-        log.info("📥 Query GraphQL: todasLasCamillas()");
-        List<Camilla> todas = camillaUseCase.obtenerTodasLasCamillas();
+    public List<Camilla> todasLasCamillas(DataFetchingFieldSelectionSet seleccion) {
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : Seleccion.campos(seleccion, "*")) {
+            campos.add("paciente".equals(campo) ? "pacienteId" : campo);
+        }
+        log.info("📥 Query GraphQL: todasLasCamillas(campos={})", campos);
+        List<Camilla> todas = camillaUseCase.obtenerTodasLasCamillas(campos);
         log.info("📤 Total camillas encontradas: {}", todas.size());
         return todas;
     }
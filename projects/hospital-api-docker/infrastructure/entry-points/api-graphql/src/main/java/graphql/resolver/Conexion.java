@@ -0,0 +1,28 @@
+package graphql.resolver;
+
+import com.example.hospital.model.Pagina;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🔗 Conexión estilo Relay (edges/pageInfo) construida a partir de una Pagina del dominio.
+ * Los nombres de los campos coinciden con los tipos *Connection del esquema.
+ */
+public record Conexion<T>(List<Edge<T>> edges, PageInfo pageInfo) {
+
+    public record Edge<T>(String cursor, T node) {
+    }
+
+    public record PageInfo(boolean hasNextPage, String endCursor) {
+    }
+
+    public static <T> Conexion<T> desde(Pagina<T> pagina) {
+        List<Edge<T>> edges = new ArrayList<>(pagina.items().size());
+        for (int i = 0; i < pagina.items().size(); i++) {
+            edges.add(new Edge<>(pagina.cursores().get(i), pagina.items().get(i)));
+        }
+        String endCursor = pagina.cursores().isEmpty() ? null : pagina.cursores().get(pagina.cursores().size() - 1);
+        return new Conexion<>(edges, new PageInfo(pagina.haySiguiente(), endCursor));
+    }
+}
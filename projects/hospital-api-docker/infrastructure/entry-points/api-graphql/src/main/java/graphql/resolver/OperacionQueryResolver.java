@@ -0,0 +1,29 @@
+package graphql.resolver;
+
+import com.example.hospital.usecase.paciente.AltaAsincronaUseCase;
+import com.example.hospital.usecase.paciente.result.OperacionAlta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * ⏳ Resolver GraphQL para consultar altas asíncronas.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class OperacionQueryResolver {
+
+    private final AltaAsincronaUseCase altaAsincronaUseCase;
+
+    /**
+     * Retorna el estado de una operación de alta; null si no existe o ya expiró.
+     */
+    @QueryMapping
+    public OperacionAlta operacionAlta(@Argument String id) {
+        log.info("📥 Query GraphQL: operacionAlta(id={})", id);
+        return altaAsincronaUseCase.consultarOperacion(id).orElse(null);
+    }
+}
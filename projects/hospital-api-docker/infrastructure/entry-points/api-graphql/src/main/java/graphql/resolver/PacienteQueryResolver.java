@@ -2,7 +2,9 @@ package graphql.resolver;
 
 
 import com.example.hospital.model.Paciente;
+import com.example.hospital.model.PacienteFiltro;
 import com.example.hospital.usecase.paciente.PacienteUseCase;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Controller;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 🎯 Resolver GraphQL para consultas de pacientes (lectura).
@@ -25,15 +28,45 @@ public class PacienteQueryResolver {
 
     /**
      * Consulta todos los pacientes registrados.
+     * Solo se leen de Mongo los campos de PacienteDocument seleccionados.
      */
     @QueryMapping
-    public List<Paciente> obtenerPacientes() {
-        log.info("📥 Query GraphQL: obtenerPacientes()");
-        List<Paciente> lista = pacienteUseCase.obtenerTodosLosPacientes();
+    public List<Paciente> obtenerPacientes(DataFetchingFieldSelectionSet seleccion) {
+        Set<String> campos = Seleccion.campos(seleccion, "*");
+        log.info("📥 Query GraphQL: obtenerPacientes(campos={})", campos);
+        List<Paciente> lista = pacienteUseCase.obtenerTodosLosPacientes(campos);
         log.info("📤 Total pacientes encontrados: {}", lista.size());
         return lista;
     }
 
+    /**
+     * Consulta los pacientes por páginas (cursor opaco "after"), opcionalmente filtrados por estado.
+     */
+    @QueryMapping
+    public Conexion<Paciente> pacientesPaginados(@Argument String after, @Argument Integer first, @Argument String estado) {
+        log.info("📥 Query GraphQL: pacientesPaginados(after={}, first={}, estado={})", after, first, estado);
+        return Conexion.desde(pacienteUseCase.obtenerPacientesPaginados(after, first, estado));
+    }
+
+    /**
+     * Consulta los pacientes filtrados por estado, EPS, tipo de sangre y fecha de alta, por páginas.
+     * Solo se leen de Mongo los campos de PacienteDocument seleccionados en edges.node.
+     */
+    @QueryMapping
+    public Conexion<Paciente> filtrarPacientes(@Argument String estado,
+                                               @Argument String eps,
+                                               @Argument String tipoSangre,
+                                               @Argument String altaDesde,
+                                               @Argument String altaHasta,
+                                               @Argument String after,
+                                               @Argument Integer first,
+                                               DataFetchingFieldSelectionSet seleccion) {
+        PacienteFiltro filtro = new PacienteFiltro(estado, eps, tipoSangre, altaDesde, altaHasta);
+        log.info("📥 Query GraphQL: filtrarPacientes({}, after={}, first={})", filtro, after, first);
+        return Conexion.desde(pacienteUseCase.filtrarPacientes(filtro, after, first,
+                Seleccion.campos(seleccion, "edges/node/*")));
+    }
+
     /**
      * Consulta un paciente por su ID.
      */
@@ -53,4 +86,31 @@ public class PacienteQueryResolver {
             return null;
         }
     }
+
+    /**
+     * Busca pacientes por nombre y apellidos (por prefijo, sin tildes), ordenados por relevancia.
+     */
+    @QueryMapping
+    public List<Paciente> buscarPacientes(@Argument String nombre, @Argument Integer first) {
+        log.info("📥 Query GraphQL: buscarPacientes(nombre={}, first={})", nombre, first);
+        return pacienteUseCase.buscarPacientesPorNombre(nombre, first);
+    }
+
+    /**
+     * Consulta un paciente por documento de identidad (null si no existe).
+     */
+    @QueryMapping
+    public Paciente pacientePorDocumento(@Argument String documentoIdentidad) {
+        log.info("📥 Query GraphQL: pacientePorDocumento({})", documentoIdentidad);
+        return pacienteUseCase.obtenerPacientePorDocumento(documentoIdentidad).orElse(null);
+    }
+
+    /**
+     * Consulta un paciente por número de historia clínica (null si no existe).
+     */
+    @QueryMapping
+    public Paciente pacientePorHistoriaClinica(@Argument String numeroHistoriaClinica) {
+        log.info("📥 Query GraphQL: pacientePorHistoriaClinica({})", numeroHistoriaClinica);
+        return pacienteUseCase.obtenerPacientePorHistoriaClinica(numeroHistoriaClinica).orElse(null);
+    }
 }
@@ -0,0 +1,28 @@
+package graphql.resolver;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 🎯 Campos que el cliente pidió en la consulta GraphQL, para leer de Mongo solo esos.
+ * El patrón es el de DataFetchingFieldSelectionSet ("*" para el tipo devuelto, "edges/node/*" en las conexiones).
+ * Los campos de introspección (__typename) no se leen de Mongo.
+ */
+final class Seleccion {
+
+    private Seleccion() {
+    }
+
+    static Set<String> campos(DataFetchingFieldSelectionSet seleccion, String patron) {
+        Set<String> campos = new LinkedHashSet<>();
+        for (SelectedField campo : seleccion.getFields(patron)) {
+            if (!campo.getName().startsWith("__")) {
+                campos.add(campo.getName());
+            }
+        }
+        return campos;
+    }
+}
@@ -0,0 +1,81 @@
+package graphql.subscription;
+
+import com.example.hospital.model.CamillaCambioEstado;
+import com.example.hospital.usecase.camilla.DisponibilidadCamillasIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔔 Suscripción GraphQL a los cambios de estado de las camillas (WebSocket en /graphql).
+ * Reemplaza el sondeo periódico de camillasDisponibles: el cliente recibe solo los cambios.
+ *
+ * Los cambios salen del índice de disponibilidad (asignaciones, liberaciones, altas, eventos y conciliación)
+ * y se reparten a todos los suscriptores desde un único sink en memoria: no hay consulta a Mongo por cliente.
+ * Cada suscriptor tiene su propia cola acotada: si se llena pierde cambios en vez de frenar a los demás
+ * (puede volver a consultar camillasDisponibles).
+ *
+ * Métricas:
+ *  - hospital.graphql.suscripciones.activas: suscriptores conectados.
+ *  - hospital.graphql.suscripciones.latencia: desde el cambio en el índice hasta la entrega a cada suscriptor.
+ */
+@Slf4j
+@Controller
+public class CamillaSubscriptionResolver {
+
+    private record Emision(CamillaCambioEstado cambio, long emitidoEn) {
+    }
+
+    private final Sinks.Many<Emision> cambios = Sinks.many().multicast().directBestEffort();
+    private final Timer latencia;
+
+    public CamillaSubscriptionResolver(DisponibilidadCamillasIndex disponibilidad, MeterRegistry meterRegistry) {
+        Gauge.builder("hospital.graphql.suscripciones.activas", cambios, Sinks.Many::currentSubscriberCount)
+                .description("Suscriptores conectados a camillaCambioEstado")
+                .register(meterRegistry);
+        this.latencia = Timer.builder("hospital.graphql.suscripciones.latencia")
+                .description("Tiempo desde el cambio de la camilla hasta su entrega al suscriptor")
+                .register(meterRegistry);
+        disponibilidad.agregarOyente(this::publicar);
+    }
+
+    /**
+     * Cambios de estado de las camillas; con habitacion solo los de esa habitación.
+     * Ejemplo (GraphQL, por WebSocket):
+     * subscription {
+     *   camillaCambioEstado(habitacion: "201") { idCamilla estadoAnterior estado ocurridoEn }
+     * }
+     */
+    @SubscriptionMapping
+    public Flux<CamillaCambioEstado> camillaCambioEstado(@Argument String habitacion) {
+        log.info("🔔 Suscripción GraphQL: camillaCambioEstado(habitacion={})", habitacion);
+        // publishOn: la entrega (y el envío por WebSocket) ocurre fuera del hilo que hizo la transición
+        return cambios.asFlux()
+                .filter(emision -> habitacion == null || habitacion.equals(emision.cambio().habitacion()))
+                .publishOn(Schedulers.boundedElastic())
+                .map(emision -> {
+                    latencia.record(System.nanoTime() - emision.emitidoEn(), TimeUnit.NANOSECONDS);
+                    return emision.cambio();
+                });
+    }
+
+    // Las transiciones llegan desde varios hilos y el sink exige emisiones en serie
+    private synchronized void publicar(CamillaCambioEstado cambio) {
+        if (cambios.currentSubscriberCount() == 0) {
+            return;
+        }
+        Sinks.EmitResult resultado = cambios.tryEmitNext(new Emision(cambio, System.nanoTime()));
+        if (resultado.isFailure() && resultado != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("⚠️ No se pudo repartir el cambio de la camilla {}: {}", cambio.idCamilla(), resultado);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package graphql.costo;
+
+import graphql.execution.RawVariables;
+import graphql.normalized.ExecutableNormalizedOperationFactory;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CostoConsultaTest {
+
+    private static final int TAMANIO_LISTA = 100;
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse("""
+                    type Query {
+                        camillas: [Camilla!]!
+                        pacientes(first: Int, after: String): PacienteConnection!
+                    }
+                    type Camilla { id: ID! paciente: Paciente }
+                    type Paciente { id: ID! nombre: String }
+                    type PacienteConnection { edges: [PacienteEdge!]! pageInfo: PageInfo! }
+                    type PacienteEdge { node: Paciente! cursor: String! }
+                    type PageInfo { hasNextPage: Boolean! }
+                    """),
+            RuntimeWiring.MOCKED_WIRING);
+
+    private static CostoConsulta costo(String consulta) {
+        return CostoConsulta.de(ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationWithRawVariables(
+                SCHEMA, Parser.parse(consulta), null, RawVariables.emptyVariables()), SCHEMA, TAMANIO_LISTA);
+    }
+
+    @Test
+    void listaSinFirstMultiplicaPorElTamanioEstimado() {
+        assertThat(costo("{ camillas { id } }")).isEqualTo(new CostoConsulta(1 + 100, 2));
+    }
+
+    @Test
+    void losHijosDeUnaListaSeMultiplican() {
+        // paciente { id nombre } cuesta 3 por camilla, más el id de la camilla
+        assertThat(costo("{ camillas { id paciente { id nombre } } }")).isEqualTo(new CostoConsulta(1 + 100 * 4, 3));
+    }
+
+    @Test
+    void laConexionPasaSuFirstALaListaEdges() {
+        // edges = 1 + 10 * (node 1 + id 1); pageInfo = 2
+        assertThat(costo("{ pacientes(first: 10) { edges { node { id } } pageInfo { hasNextPage } } }"))
+                .isEqualTo(new CostoConsulta(1 + 21 + 2, 4));
+    }
+
+    @Test
+    void firstSeNormalizaComoEnLosCasosDeUso() {
+        // Sin first: página por defecto (20); first enorme: máximo (200)
+        assertThat(costo("{ pacientes { edges { node { id } } } }").costo()).isEqualTo(1 + 1 + 20 * 2);
+        assertThat(costo("{ pacientes(first: 100000) { edges { node { id } } } }").costo()).isEqualTo(1 + 1 + 200 * 2);
+    }
+
+    @Test
+    void laIntrospeccionNoCuenta() {
+        assertThat(costo("{ __typename camillas { __typename id } }")).isEqualTo(costo("{ camillas { id } }"));
+    }
+}
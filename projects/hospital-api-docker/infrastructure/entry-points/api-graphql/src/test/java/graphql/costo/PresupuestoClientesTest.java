@@ -0,0 +1,55 @@
+package graphql.costo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresupuestoClientesTest {
+
+    @Test
+    void rechazaSinDescontarLoQueNoCabe() {
+        PresupuestoClientes presupuesto = new PresupuestoClientes(100, Duration.ofMinutes(1));
+
+        assertThat(presupuesto.consumir("a", 60)).isTrue();
+        assertThat(presupuesto.consumir("a", 50)).isFalse();
+        assertThat(presupuesto.consumir("a", 40)).isTrue();
+        assertThat(presupuesto.consumir("a", 1)).isFalse();
+    }
+
+    @Test
+    void cadaClienteTieneSuPresupuesto() {
+        PresupuestoClientes presupuesto = new PresupuestoClientes(100, Duration.ofMinutes(1));
+
+        assertThat(presupuesto.consumir("a", 100)).isTrue();
+        assertThat(presupuesto.consumir("b", 100)).isTrue();
+        assertThat(presupuesto.clientes()).isEqualTo(2);
+    }
+
+    @Test
+    void elPresupuestoSeRecuperaAlPasarLaVentana() throws InterruptedException {
+        PresupuestoClientes presupuesto = new PresupuestoClientes(100, Duration.ofMillis(50));
+        assertThat(presupuesto.consumir("a", 100)).isTrue();
+        assertThat(presupuesto.consumir("a", 100)).isFalse();
+
+        Thread.sleep(80);
+
+        assertThat(presupuesto.consumir("a", 100)).isTrue();
+    }
+
+    @Test
+    void descartaAlClienteMenosRecienteAlSuperarElMaximo() {
+        PresupuestoClientes presupuesto = new PresupuestoClientes(100, Duration.ofMinutes(1), 2);
+        presupuesto.consumir("a", 100);
+        presupuesto.consumir("b", 100);
+        presupuesto.consumir("a", 0);
+
+        presupuesto.consumir("c", 100);
+
+        assertThat(presupuesto.clientes()).isEqualTo(2);
+        // "a" consultó después que "b": conserva su consumo, "b" empieza de cero
+        assertThat(presupuesto.consumir("a", 1)).isFalse();
+        assertThat(presupuesto.consumir("b", 100)).isTrue();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.hospital.controller;
+
+import com.example.hospital.model.Camilla;
+import com.example.hospital.response.PaginaResponse;
+import com.example.hospital.usecase.camilla.CamillaUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 🛏️ Controlador REST para consultas de camillas.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/camillas")
+@RequiredArgsConstructor
+public class CamillaController {
+
+    private final CamillaUseCase camillaUseCase;
+
+    /**
+     * Lista las camillas por páginas (?cursor=&limit=&estado=).
+     */
+    @GetMapping
+    public PaginaResponse<Camilla> listarCamillas(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String estado) {
+        return PaginaResponse.desde(camillaUseCase.obtenerCamillasPaginadas(cursor, limit, estado));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.hospital.controller;
+
+import com.example.hospital.usecase.camilla.CamillaUseCase;
+import com.example.hospital.usecase.hospital.HospitalUseCase;
+import com.example.hospital.usecase.paciente.PacienteUseCase;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 📦 Exportaciones NDJSON (un documento JSON por línea) para el data warehouse.
+ * Se recorre un cursor de Mongo y cada documento se escribe directo a la respuesta,
+ * así la memoria usada no depende del tamaño de la colección.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final PacienteUseCase pacienteUseCase;
+    private final CamillaUseCase camillaUseCase;
+    private final HospitalUseCase hospitalUseCase;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/pacientes")
+    public ResponseEntity<StreamingResponseBody> exportarPacientes() {
+        return ndjson("pacientes", pacienteUseCase::exportarPacientes);
+    }
+
+    @GetMapping("/camillas")
+    public ResponseEntity<StreamingResponseBody> exportarCamillas() {
+        return ndjson("camillas", camillaUseCase::exportarCamillas);
+    }
+
+    @GetMapping("/hospitals")
+    public ResponseEntity<StreamingResponseBody> exportarHospitales() {
+        return ndjson("hospitals", hospitalUseCase::exportarHospitales);
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(String nombre, Supplier<? extends Stream<?>> origen) {
+        // Sin flush por documento: el generador y el buffer del servidor envían por bloques
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            long total = 0;
+            try (Stream<?> datos = origen.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // El separador entre documentos es el salto de línea que se escribe abajo
+                generator.setRootValueSeparator(null);
+                Iterator<?> it = datos.iterator();
+                while (it.hasNext()) {
+                    writer.writeValue(generator, it.next());
+                    generator.writeRaw('\n');
+                    total++;
+                }
+            }
+            log.info("✅ Exportación de {} terminada: {} documentos", nombre, total);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"" + nombre + ".ndjson\"")
+                .body(body);
+    }
+}
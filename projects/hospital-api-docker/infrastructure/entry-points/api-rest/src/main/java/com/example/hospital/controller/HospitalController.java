@@ -1,6 +1,7 @@
 package com.example.hospital.controller;
 
 import com.example.hospital.model.Hospital;
+import com.example.hospital.response.PaginaResponse;
 import com.example.hospital.usecase.hospital.HospitalUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +27,16 @@ public class HospitalController {
         return hospitalUseCase.obtenerTodosLosHospitales();
     }
 
+    /**
+     * Obtiene los hospitales por páginas (?cursor=&limit=&city=).
+     */
+    @GetMapping(params = "limit")
+    public PaginaResponse<Hospital> getHospitalsPage(@RequestParam(required = false) String cursor,
+                                                     @RequestParam Integer limit,
+                                                     @RequestParam(required = false) String city) {
+        return PaginaResponse.desde(hospitalUseCase.obtenerHospitalesPaginados(cursor, limit, city));
+    }
+
     /**
      * Crea un nuevo hospital.
      */
@@ -0,0 +1,34 @@
+package com.example.hospital.controller;
+
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.response.OperacionAltaResponse;
+import com.example.hospital.usecase.paciente.AltaAsincronaUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ⏳ Consulta del estado de las operaciones asíncronas (altas con ?async=true).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/operaciones")
+@RequiredArgsConstructor
+public class OperacionController {
+
+    private final AltaAsincronaUseCase altaAsincronaUseCase;
+
+    @GetMapping("/{id}")
+    public OperacionAltaResponse consultarOperacion(@PathVariable String id) {
+        return altaAsincronaUseCase.consultarOperacion(id)
+                .map(OperacionAltaResponse::desde)
+                .orElseThrow(() -> new BusinessException(
+                        "NOT_FOUND",
+                        "Operación no encontrada (o ya expirada): " + id,
+                        "404"
+                ));
+    }
+}
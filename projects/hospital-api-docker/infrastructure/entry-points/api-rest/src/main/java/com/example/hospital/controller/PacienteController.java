@@ -1,18 +1,34 @@
 package com.example.hospital.controller;
 
 
+import com.example.hospital.exception.BusinessException;
+import com.example.hospital.model.PacienteFiltro;
+import com.example.hospital.response.AltaLoteResponse;
+import com.example.hospital.response.OperacionAltaResponse;
 import com.example.hospital.response.PacienteResponse;
 import com.example.hospital.response.PacienteResponseMapper;
+import com.example.hospital.response.PaginaResponse;
+import com.example.hospital.usecase.idempotencia.IdempotenciaStore;
+import com.example.hospital.usecase.paciente.AltaAsincronaUseCase;
+import com.example.hospital.usecase.paciente.DarAltaLoteUseCase;
 import com.example.hospital.usecase.paciente.DarAltaPacienteUseCase;
+import com.example.hospital.usecase.paciente.PacienteUseCase;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 
 /**
  * 🚪 Controlador REST para gestionar operaciones de alta de pacientes.
@@ -24,20 +40,118 @@ import org.springframework.web.bind.annotation.RestController;
 public class PacienteController {
 
     private final DarAltaPacienteUseCase darAltaPacienteUseCase;
+    private final PacienteUseCase pacienteUseCase;
+    private final AltaAsincronaUseCase altaAsincronaUseCase;
+    private final DarAltaLoteUseCase darAltaLoteUseCase;
+    private final IdempotenciaStore idempotenciaStore;
+
+    /**
+     * Lista los pacientes por páginas (?cursor=&limit=&estado=).
+     */
+    @GetMapping
+    public PaginaResponse<PacienteResponse> listarPacientes(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String estado) {
+        return PaginaResponse.desde(pacienteUseCase.obtenerPacientesPaginados(cursor, limit, estado),
+                PacienteResponseMapper::toResponse);
+    }
+
+    /**
+     * Lista los pacientes filtrados por estado, EPS, tipo de sangre y fecha de alta, por páginas.
+     * ?estado=Hospitalizado&eps=&tipoSangre=&altaDesde=2024-10-01&altaHasta=2024-10-31&cursor=&limit=
+     * altaDesde / altaHasta solo se aceptan junto con estado (400 sin él).
+     * Con ?campos=primerNombre,primerApellido,estado solo se leen esos campos (y el id); los demás llegan en null.
+     */
+    @GetMapping("/filtrar")
+    public PaginaResponse<PacienteResponse> filtrarPacientes(@RequestParam(required = false) String estado,
+                                                             @RequestParam(required = false) String eps,
+                                                             @RequestParam(required = false) String tipoSangre,
+                                                             @RequestParam(required = false) String altaDesde,
+                                                             @RequestParam(required = false) String altaHasta,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) List<String> campos) {
+        PacienteFiltro filtro = new PacienteFiltro(estado, eps, tipoSangre, altaDesde, altaHasta);
+        return PaginaResponse.desde(pacienteUseCase.filtrarPacientes(filtro, cursor, limit, campos),
+                PacienteResponseMapper::toResponse);
+    }
+
+    /**
+     * Busca pacientes por nombre, sin distinguir tildes ni mayúsculas (?nombre=maria lopez&limit=).
+     */
+    @GetMapping("/buscar")
+    public List<PacienteResponse> buscarPorNombre(@RequestParam String nombre,
+                                                  @RequestParam(required = false) Integer limit) {
+        return pacienteUseCase.buscarPacientesPorNombre(nombre, limit).stream()
+                .map(PacienteResponseMapper::toResponse)
+                .toList();
+    }
+
+    /**
+     * Busca un paciente por documento de identidad (404 si no existe).
+     */
+    @GetMapping("/documento/{documentoIdentidad}")
+    public PacienteResponse buscarPorDocumento(@PathVariable String documentoIdentidad) {
+        return pacienteUseCase.obtenerPacientePorDocumento(documentoIdentidad)
+                .map(PacienteResponseMapper::toResponse)
+                .orElseThrow(() -> noEncontrado("documento de identidad " + documentoIdentidad));
+    }
+
+    /**
+     * Busca un paciente por número de historia clínica (404 si no existe).
+     */
+    @GetMapping("/historia/{numeroHistoriaClinica}")
+    public PacienteResponse buscarPorHistoriaClinica(@PathVariable String numeroHistoriaClinica) {
+        return pacienteUseCase.obtenerPacientePorHistoriaClinica(numeroHistoriaClinica)
+                .map(PacienteResponseMapper::toResponse)
+                .orElseThrow(() -> noEncontrado("historia clínica " + numeroHistoriaClinica));
+    }
+
+    private BusinessException noEncontrado(String criterio) {
+        return new BusinessException("NOT_FOUND", "Paciente no encontrado con " + criterio, "404");
+    }
 
     /**
      * Da de alta a un paciente y devuelve un resumen de la operación.
+     * Con ?async=true responde 202 con el ID de la operación; el resultado se consulta en /api/operaciones/{id}.
+     * Con el header Idempotency-Key, un reintento con la misma clave recibe la respuesta original
+     * sin repetir el alta (ni el evento de camilla liberada).
      */
     @PutMapping("/{id}/alta")
-    public ResponseEntity<PacienteResponse> darAlta(@PathVariable String id) {
+    public ResponseEntity<?> darAlta(@PathVariable String id,
+                                     @RequestParam(defaultValue = "false") boolean async,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (async) {
+            var operacion = idempotenciaStore.ejecutar("altaAsincrona", idempotencyKey, id,
+                    () -> altaAsincronaUseCase.solicitarAlta(id));
+            // En un reintento se responde con el estado actual de la operación original
+            operacion = altaAsincronaUseCase.consultarOperacion(operacion.id()).orElse(operacion);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", "/api/operaciones/" + operacion.id())
+                    .body(OperacionAltaResponse.desde(operacion));
+        }
+
         log.info("➡️ Iniciando alta para paciente ID: {}", id);
 
-        var result = darAltaPacienteUseCase.darAlta(id);
+        var result = idempotenciaStore.ejecutar("alta", idempotencyKey, id,
+                () -> darAltaPacienteUseCase.darAlta(id));
         PacienteResponse response = PacienteResponseMapper.toResponse(result.paciente(), result.camilla());
 
         log.info("✅ Alta completada para: {} {}", result.paciente().getPrimerNombre(), result.paciente().getPrimerApellido());
         return ResponseEntity.ok(response);
     }
-}
-
 
+    /**
+     * Da de alta a varios pacientes en una sola operación (cuerpo: lista de IDs).
+     * Responde 200 con un resultado por paciente: los que fallan no impiden el alta de los demás.
+     * Admite el header Idempotency-Key igual que el alta individual.
+     */
+    @PutMapping("/alta")
+    public AltaLoteResponse darAltaLote(@RequestBody List<String> ids,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.info("➡️ Iniciando alta en lote de {} pacientes", ids.size());
+        var resultado = idempotenciaStore.ejecutar("altaLote", idempotencyKey, String.join(",", ids),
+                () -> darAltaLoteUseCase.darAlta(ids));
+        return AltaLoteResponse.desde(resultado);
+    }
+}
@@ -25,7 +25,24 @@ public class GlobalExceptionHandler {
         body.put("detail", ex.getDetail());
         body.put("code", ex.getCode());
         body.put("error", "Error de negocio");
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(body, resolverEstadoHttp(ex));
+    }
+
+    /**
+     * Usa el código HTTP declarado en la excepción (ej: "404", "409"); si no es numérico, responde 400.
+     */
+    private HttpStatus resolverEstadoHttp(BusinessException ex) {
+        for (String candidato : new String[]{ex.getCode(), ex.getStatus()}) {
+            try {
+                HttpStatus estado = HttpStatus.resolve(Integer.parseInt(candidato));
+                if (estado != null) {
+                    return estado;
+                }
+            } catch (NumberFormatException e) {
+                // No es un código HTTP, se intenta con el siguiente campo
+            }
+        }
+        return HttpStatus.BAD_REQUEST;
     }
 
     @ExceptionHandler(BadRequestException.class)
@@ -0,0 +1,55 @@
+package com.example.hospital.response;
+
+import com.example.hospital.usecase.paciente.result.AltaLoteResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * 🚑 Respuesta del alta en lote: totales y un resultado por paciente, en el orden solicitado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AltaLoteResponse {
+
+    private long exitosas;
+    private long fallidas;
+    private List<Resultado> resultados;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Resultado {
+        private String pacienteId;
+        private boolean exito;
+        private PacienteResponse alta;
+        private String errorCodigo;
+        private String errorDetalle;
+    }
+
+    public static AltaLoteResponse desde(AltaLoteResult lote) {
+        List<Resultado> resultados = lote.resultados().stream()
+                .map(r -> Resultado.builder()
+                        .pacienteId(r.pacienteId())
+                        .exito(r.exito())
+                        .alta(r.exito() ? PacienteResponseMapper.toResponse(r.paciente(), r.camilla()) : null)
+                        .errorCodigo(r.errorCodigo())
+                        .errorDetalle(r.errorDetalle())
+                        .build())
+                .collect(Collectors.toList());
+
+        return AltaLoteResponse.builder()
+                .exitosas(lote.exitosas())
+                .fallidas(lote.fallidas())
+                .resultados(resultados)
+                .build();
+    }
+}
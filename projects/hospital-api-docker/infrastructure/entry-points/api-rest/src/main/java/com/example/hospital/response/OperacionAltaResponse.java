@@ -0,0 +1,46 @@
+package com.example.hospital.response;
+
+import com.example.hospital.usecase.paciente.result.OperacionAlta;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+
+/**
+ * ⏳ Estado de un alta asíncrona; "resultado" se llena cuando la operación está COMPLETADA.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacionAltaResponse {
+
+    private String operacionId;
+    private String pacienteId;
+    private String estado;
+    private Instant creadaEn;
+    private Instant terminadaEn;
+    private PacienteResponse resultado;
+    private String errorCodigo;
+    private String errorDetalle;
+
+    public static OperacionAltaResponse desde(OperacionAlta operacion) {
+        PacienteResponse resultado = operacion.resultado() != null
+                ? PacienteResponseMapper.toResponse(operacion.resultado().paciente(), operacion.resultado().camilla())
+                : null;
+
+        return OperacionAltaResponse.builder()
+                .operacionId(operacion.id())
+                .pacienteId(operacion.pacienteId())
+                .estado(operacion.estado().name())
+                .creadaEn(operacion.creadaEn())
+                .terminadaEn(operacion.terminadaEn())
+                .resultado(resultado)
+                .errorCodigo(operacion.errorCodigo())
+                .errorDetalle(operacion.errorDetalle())
+                .build();
+    }
+}
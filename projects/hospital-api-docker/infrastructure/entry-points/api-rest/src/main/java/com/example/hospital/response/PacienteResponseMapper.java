@@ -6,6 +6,10 @@ import com.example.hospital.model.Paciente;
 import com.example.hospital.utils.PacienteUtils;
 import lombok.experimental.UtilityClass;
 
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * 🧩 Mapper para construir el objeto PacienteResponse desde el dominio.
  */
@@ -19,7 +23,7 @@ public class PacienteResponseMapper {
 
         return PacienteResponse.builder()
                 .id(paciente.getId())
-                .nombreCompleto(paciente.getPrimerNombre() + " " + paciente.getPrimerApellido())
+                .nombreCompleto(nombreCompleto(paciente))
                 .documentoIdentidad(paciente.getDocumentoIdentidad())
                 .estado(paciente.getEstado())
                 .fechaAlta(paciente.getFechaAlta())
@@ -29,6 +33,21 @@ public class PacienteResponseMapper {
                 .tiempoEstancia(tiempoEstancia)
                 .build();
     }
+
+    /**
+     * Para los listados: sin camilla, la estancia queda "Sin información".
+     */
+    public PacienteResponse toResponse(Paciente paciente) {
+        return toResponse(paciente, null);
+    }
+
+    // Con una proyección (?campos=) el nombre o el apellido pueden no venir: no se muestra "null"
+    private String nombreCompleto(Paciente paciente) {
+        String nombre = Stream.of(paciente.getPrimerNombre(), paciente.getPrimerApellido())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+        return nombre.isEmpty() ? null : nombre;
+    }
 }
 
 
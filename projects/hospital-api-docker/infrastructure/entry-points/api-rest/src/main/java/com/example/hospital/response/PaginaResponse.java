@@ -0,0 +1,45 @@
+package com.example.hospital.response;
+
+import com.example.hospital.model.Pagina;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * 📄 Respuesta paginada por cursor.
+ * Para pedir la siguiente página se envía siguienteCursor como ?cursor=.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+
+    private List<T> items;
+    private String siguienteCursor;
+    private boolean haySiguiente;
+
+    public static <T> PaginaResponse<T> desde(Pagina<T> pagina) {
+        return PaginaResponse.<T>builder()
+                .items(pagina.items())
+                .siguienteCursor(pagina.siguienteCursor())
+                .haySiguiente(pagina.haySiguiente())
+                .build();
+    }
+
+    /**
+     * Igual que desde(pagina), convirtiendo cada elemento (ej: del dominio al DTO de respuesta).
+     */
+    public static <T, R> PaginaResponse<R> desde(Pagina<T> pagina, Function<T, R> mapper) {
+        return PaginaResponse.<R>builder()
+                .items(pagina.items().stream().map(mapper).toList())
+                .siguienteCursor(pagina.siguienteCursor())
+                .haySiguiente(pagina.haySiguiente())
+                .build();
+    }
+}